@@ -0,0 +1,102 @@
+package tbsc.dutchhelper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tbsc.dutchhelper.util.wikt.Autocomplete;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link Autocomplete#suggest} takes per keystroke, over a vocabulary about as big as Wiktionary's
+ * Dutch one. The vocabulary is made of Dutch-looking compounds so that, like real Dutch, many words share prefixes.
+ *
+ * Queries are what a user would have typed at each keystroke while typing some of the words: exactly ("prefix"), with
+ * a typo ("typo", so the edit-distance search runs), or with "y" for "ij" and without diacritics ("folded").
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    private static final String[] PARTS = {
+            "huis", "deur", "boek", "kast", "tafel", "stoel", "raam", "fiets", "wijn", "brood", "kaas", "melk",
+            "water", "vuur", "licht", "school", "werk", "land", "zee", "berg", "bos", "weg", "stad", "dorp",
+            "kerk", "markt", "straat", "tuin", "bloem", "boom", "vogel", "vis", "paard", "koe", "hond", "kat",
+            "tijd", "dag", "nacht", "week", "jaar", "ijs", "rijst", "zijde", "lijn", "prijs", "wijk", "reis",
+            "café", "ideeën", "privé", "één", "geluk", "vrijheid", "ziek", "zorg", "kind", "vrouw", "man", "vriend",
+            "spel", "taal", "woord", "zin", "brief", "kaart", "geld", "bank", "winkel", "haven", "schip", "trein"
+    };
+    private static final String[] SUFFIXES = {"", "en", "je", "jes", "er", "ers", "heid", "lijk", "achtig", "s"};
+
+    private static final int VOCABULARY_SIZE = 100000;
+    private static final int TYPED_WORDS = 50;
+
+    @Param({"prefix", "typo", "folded"})
+    public String queries;
+
+    private Autocomplete autocomplete;
+    private String[] typed;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Set<String> vocabulary = new HashSet<>();
+        while (vocabulary.size() < VOCABULARY_SIZE) {
+            StringBuilder word = new StringBuilder(PARTS[random.nextInt(PARTS.length)]);
+            int parts = random.nextInt(3);
+            for (int i = 0; i < parts; i++) {
+                word.append(PARTS[random.nextInt(PARTS.length)]);
+            }
+            word.append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+            vocabulary.add(word.toString());
+        }
+        autocomplete = Autocomplete.of(vocabulary);
+
+        List<String> words = new ArrayList<>(vocabulary);
+        Collections.sort(words);
+        Collections.shuffle(words, random);
+        List<String> keystrokes = new ArrayList<>();
+        for (String word : words.subList(0, TYPED_WORDS)) {
+            String query = change(word, random);
+            for (int length = 1; length <= query.length(); length++) {
+                keystrokes.add(query.substring(0, length));
+            }
+        }
+        typed = keystrokes.toArray(new String[0]);
+    }
+
+    private String change(String word, Random random) {
+        switch (queries) {
+            case "typo":
+                // swap two letters in the middle, the most common typo
+                int i = 1 + random.nextInt(Math.max(1, word.length() - 2));
+                if (i + 1 >= word.length()) {
+                    return word;
+                }
+                return word.substring(0, i) + word.charAt(i + 1) + word.charAt(i) + word.substring(i + 2);
+            case "folded":
+                return word.replace("ij", "y").replace('é', 'e').replace('ë', 'e');
+            default:
+                return word;
+        }
+    }
+
+    /**
+     * One keystroke's worth of suggestions.
+     */
+    @Benchmark
+    public List<String> suggest() {
+        String query = typed[next];
+        next = (next + 1) % typed.length;
+        return autocomplete.suggest(query, 10);
+    }
+
+}
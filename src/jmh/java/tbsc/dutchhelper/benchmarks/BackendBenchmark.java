@@ -0,0 +1,140 @@
+package tbsc.dutchhelper.benchmarks;
+
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.parser.WritableBerkeleyDBWiktionaryEdition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tbsc.dutchhelper.util.wikt.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the {@link DictionaryBackend}s on the same pages and the same lookups: each backend is built out of the
+ * corpus pages and synthetic pages of every size (see {@link Corpus}), so they hold exactly the same Dutch pages.
+ *
+ * "lookup" reads one page at a time, like a search does, and "batch" reads {@value #BATCH_SIZE} at once, like a chunk of
+ * text mode does. One in {@value #MISS_EVERY} titles has no page, since text mode looks up lots of those.
+ *
+ * Pages are small enough to fit in the OS's file cache, so this measures reading and deserializing pages, not the disk.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BackendBenchmark {
+
+    private static final int SYNTHETIC_PAGES = 2000;
+    private static final int MAX_SYNTHETIC_SENSES = 32;
+    private static final int LOOKUPS = 4096;
+    private static final int BATCH_SIZE = 64;
+    private static final int MISS_EVERY = 8;
+
+    @Param({"je", "mapped", "memory"})
+    public String backendName;
+
+    private Path directory;
+    private DictionaryBackend backend;
+    private String[] lookups;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        List<WiktionaryPage> pages = new ArrayList<>(Corpus.pages());
+        for (int i = 0; i < SYNTHETIC_PAGES; i++) {
+            pages.add(Corpus.syntheticPage("woord" + i, 1 + random.nextInt(MAX_SYNTHETIC_SENSES), 4));
+        }
+        // every backend holds what the Dutch index would
+        for (WiktionaryPage page : pages) {
+            page.entries().removeIf(e -> e.getWordLanguage() != WiktionaryHelper.getNLD());
+        }
+        pages.removeIf(page -> page.getEntryCount() == 0);
+        // JE stores pages by their id, which parsed pages don't have yet
+        for (int i = 0; i < pages.size(); i++) {
+            pages.get(i).setId(i + 1);
+        }
+
+        directory = Files.createTempDirectory("backend-benchmark");
+        backend = open(pages);
+
+        List<String> titles = new ArrayList<>();
+        for (WiktionaryPage page : pages) {
+            titles.add(page.getTitle());
+        }
+        lookups = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = i % MISS_EVERY == 0
+                    ? "geen" + i
+                    : titles.get(random.nextInt(titles.size()));
+        }
+    }
+
+    private DictionaryBackend open(List<WiktionaryPage> pages) throws IOException {
+        switch (backendName) {
+            case JEWiktionaryEdition.BACKEND_NAME:
+                WritableBerkeleyDBWiktionaryEdition writable =
+                        new WritableBerkeleyDBWiktionaryEdition(directory.toFile(), true);
+                writable.setLanguage(WiktionaryHelper.getNLD());
+                for (WiktionaryPage page : pages) {
+                    writable.savePage(page);
+                }
+                writable.commit();
+                writable.close();
+                return new JEWiktionaryEdition(directory.toFile());
+            case MappedWiktionaryEdition.BACKEND_NAME:
+                File file = new File(directory.toFile(), DutchIndex.MAPPED_FILE_NAME);
+                try (MappedWiktionaryEdition.Writer writer =
+                             new MappedWiktionaryEdition.Writer(directory.toFile(), WiktionaryHelper.getNLD())) {
+                    for (WiktionaryPage page : pages) {
+                        writer.add(page);
+                    }
+                    writer.write(file);
+                }
+                return new MappedWiktionaryEdition(file);
+            case MemoryBackend.BACKEND_NAME:
+                return new MemoryBackend(pages);
+            default:
+                throw new IllegalArgumentException("Unknown backend " + backendName);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        backend.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Object lookup() {
+        String title = lookups[next];
+        next = (next + 1) % LOOKUPS;
+        return backend.getPageForWord(title);
+    }
+
+    @Benchmark
+    public void batch(Blackhole blackhole) {
+        String[] titles = new String[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            titles[i] = lookups[next];
+            next = (next + 1) % LOOKUPS;
+        }
+        // sorted and distinct, like WiktionaryHelper.getPages passes them
+        String[] sorted = Arrays.stream(titles).distinct().sorted().toArray(String[]::new);
+        blackhole.consume(backend.readPages(sorted));
+    }
+
+}
@@ -0,0 +1,147 @@
+package tbsc.dutchhelper.benchmarks;
+
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.parser.en.ENWiktionaryEntryParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the checked-in corpus of real Dutch wikitext (src/jmh/resources) that the benchmarks run over:
+ * snippets.txt has single glosses, examples and labels grouped into sections, and pages.txt has whole pages, which
+ * are parsed into {@link WiktionaryPage}s with JWKTL's own entry parser, the same way the database was built.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class Corpus {
+
+    private Corpus() {
+    }
+
+    /**
+     * @param section Section of snippets.txt, without the brackets
+     * @return Every snippet in that section
+     */
+    public static String[] snippets(String section) {
+        List<String> result = new ArrayList<>();
+        String current = null;
+        for (String line : readLines("snippets.txt")) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (isSectionHeader(line)) {
+                current = line.substring(1, line.length() - 1);
+            } else if (section.equals(current)) {
+                result.add(line);
+            }
+        }
+
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No snippets in section " + section);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * @return Every snippet in snippets.txt, from all sections
+     */
+    public static String[] allSnippets() {
+        List<String> result = new ArrayList<>();
+        for (String line : readLines("snippets.txt")) {
+            if (!line.isEmpty() && !line.startsWith("#") && !isSectionHeader(line)) {
+                result.add(line);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * @return Every page in pages.txt, parsed
+     */
+    public static List<WiktionaryPage> pages() {
+        // title to wikitext, in file order
+        Map<String, StringBuilder> texts = new LinkedHashMap<>();
+        StringBuilder current = null;
+        for (String line : readLines("pages.txt")) {
+            if (line.startsWith("### ")) {
+                current = new StringBuilder();
+                texts.put(line.substring(4), current);
+            } else if (current != null) {
+                current.append(line).append('\n');
+            }
+        }
+
+        List<WiktionaryPage> result = new ArrayList<>();
+        ENWiktionaryEntryParser parser = new ENWiktionaryEntryParser();
+        texts.forEach((title, text) -> {
+            WiktionaryPage page = new WiktionaryPage();
+            page.setTitle(title);
+            parser.parse(page, text.toString());
+            result.add(page);
+        });
+        return result;
+    }
+
+    /**
+     * Builds a page as big as needed out of the snippets, for measuring how formatting scales with a page's size.
+     * Its entries are verbs under separate etymologies (like "zijn" has), each sense with a label, a gloss and an
+     * example, and parsed like {@link #pages()}.
+     * @param senses Amount of senses on the page
+     * @param sensesPerEntry Amount of senses in each entry, the last one can have less
+     */
+    public static WiktionaryPage syntheticPage(String title, int senses, int sensesPerEntry) {
+        String[] labels = snippets("labels");
+        String[] glosses = snippets("glosses");
+        String[] examples = snippets("examples");
+
+        StringBuilder text = new StringBuilder("==Dutch==\n");
+        for (int i = 0; i < senses; i++) {
+            if (i % sensesPerEntry == 0) {
+                text.append("\n===Etymology ").append(i / sensesPerEntry + 1).append("===\n\n")
+                        .append("====Verb====\n{{nl-verb}}\n\n");
+            }
+            text.append("# ").append(labels[i % labels.length]).append(' ').append(glosses[i % glosses.length])
+                    .append('\n');
+            text.append("#: ").append(examples[i % examples.length]).append('\n');
+        }
+
+        WiktionaryPage page = new WiktionaryPage();
+        page.setTitle(title);
+        new ENWiktionaryEntryParser().parse(page, text.toString());
+        return page;
+    }
+
+    private static boolean isSectionHeader(String line) {
+        // snippets can start with a link, and end with one too
+        return line.startsWith("[") && !line.startsWith("[[") && line.endsWith("]");
+    }
+
+    private static List<String> readLines(String resource) {
+        InputStream in = Corpus.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing corpus file " + resource);
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+
+}
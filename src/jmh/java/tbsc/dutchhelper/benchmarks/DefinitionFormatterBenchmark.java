@@ -0,0 +1,71 @@
+package tbsc.dutchhelper.benchmarks;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionarySense;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tbsc.dutchhelper.util.wikt.DefinitionFormatter;
+import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefinitionFormatter} at each level (page, entry and sense) over the pages in the corpus,
+ * which are parsed once before measuring.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefinitionFormatterBenchmark {
+
+    private List<? extends IWiktionaryPage> pages;
+    private List<IWiktionaryEntry> entries;
+    private List<IWiktionarySense> senses;
+
+    @Setup
+    public void setup() {
+        pages = Corpus.pages();
+        entries = new ArrayList<>();
+        senses = new ArrayList<>();
+        for (IWiktionaryPage page : pages) {
+            for (IWiktionaryEntry entry : WiktionaryHelper.getDutchEntries(page)) {
+                entries.add(entry);
+                for (IWiktionarySense sense : entry.getSenses()) {
+                    senses.add(sense);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void formatPage(Blackhole bh) {
+        for (IWiktionaryPage page : pages) {
+            bh.consume(DefinitionFormatter.formatPage(page));
+        }
+    }
+
+    @Benchmark
+    public void formatEntry(Blackhole bh) {
+        for (IWiktionaryEntry entry : entries) {
+            bh.consume(DefinitionFormatter.formatEntry(entry));
+        }
+    }
+
+    @Benchmark
+    public void formatSense(Blackhole bh) {
+        for (IWiktionarySense sense : senses) {
+            bh.consume(DefinitionFormatter.formatSense(sense));
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package tbsc.dutchhelper.benchmarks;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tbsc.dutchhelper.util.wikt.DefinitionFormatter;
+import tbsc.dutchhelper.util.wikt.FormattedEntry;
+import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
+import tbsc.dutchhelper.util.wikt.render.EntryRenderer;
+import tbsc.dutchhelper.util.wikt.render.HtmlRenderer;
+import tbsc.dutchhelper.util.wikt.render.JsonRenderer;
+import tbsc.dutchhelper.util.wikt.render.PlainTextRenderer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each {@link EntryRenderer} over the entries in the corpus, which are formatted once before measuring,
+ * so only rendering is measured.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryRendererBenchmark {
+
+    @Param({"plain", "html", "json"})
+    public String renderer;
+
+    private EntryRenderer entryRenderer;
+    private List<FormattedEntry> entries;
+
+    @Setup
+    public void setup() {
+        switch (renderer) {
+            case "plain":
+                entryRenderer = new PlainTextRenderer();
+                break;
+            case "html":
+                entryRenderer = new HtmlRenderer();
+                break;
+            case "json":
+                entryRenderer = new JsonRenderer();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown renderer " + renderer);
+        }
+
+        entries = new ArrayList<>();
+        for (IWiktionaryPage page : Corpus.pages()) {
+            for (IWiktionaryEntry entry : WiktionaryHelper.getDutchEntries(page)) {
+                entries.add(DefinitionFormatter.formatEntry(entry));
+            }
+        }
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) {
+        for (FormattedEntry entry : entries) {
+            bh.consume(entryRenderer.render(entry));
+        }
+    }
+
+}
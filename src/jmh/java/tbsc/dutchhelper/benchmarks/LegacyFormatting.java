@@ -0,0 +1,87 @@
+package tbsc.dutchhelper.benchmarks;
+
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
+import tbsc.dutchhelper.util.wikt.handlers.*;
+
+/**
+ * The removeFormatting pipeline as it was before {@link tbsc.dutchhelper.util.wikt.WikitextFormatter}:
+ * one {@link TemplateParser#parse} call per handler and two regex passes.
+ * Kept here only as a baseline for benchmarks, don't use it anywhere else.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class LegacyFormatting {
+
+    private LegacyFormatting() {
+    }
+
+    /**
+     * Attempts to strip out Wiktionary formatting, such as {{hello}} or [[thing]].
+     * @param s String to de-format
+     * @return De-formatted string
+     */
+    public static String removeFormatting(String s) {
+        String result = s;
+
+        // handles {{non-gloss definition}} (part of definition that shouldn't be inside parentheses)
+        // test with die
+        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler("non-gloss definition"));
+
+        // handles {{gloss}} (definition inside parentheses)
+        // test with slaan
+        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler("(", ")", 0, "gloss"));
+
+        // handles {{nl-noun form of}} (automated noun forms)
+        // test with any plural/diminutive noun
+        result = TemplateParser.parse(result, new NLNounTemplateHandler());
+
+        // handles {{nl-verb form of}} (automated verb inflections)
+        // test with any non-base verb form
+        result = TemplateParser.parse(result, new NLVerbTemplateHandler());
+
+        // handles {{nl-adj form of}} (automated adjective inflections)
+        // test with any adjective
+        result = TemplateParser.parse(result, new NLAdjTemplateHandler());
+
+        // handles {{l}} (doesn't care about language, just replaces with the text)
+        // test with motorrijwiel
+        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler(1, "link", "l"));
+
+        // handles {{ant}}
+        // test with groot
+        result = TemplateParser.parse(result, new ListBaseTemplateHandler("Antonyms: ", 1, "ant", "antonyms"));
+
+        // handles {{syn}}
+        // test with groot
+        result = TemplateParser.parse(result, new ListBaseTemplateHandler("Synonyms: ", 1, "syn", "synonyms"));
+
+        // handles {{lb}}, {{lbl}} and {{label}}
+        // test with verlopen
+        result = TemplateParser.parse(result, new ListBaseTemplateHandler("(", ")", 1, "lb", "lbl", "label"));
+
+        // handles {{mention}} and {{m}}
+        // test with noemen
+        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler(1, "mention", "m"));
+
+        // handles {{ux}}, {{eg}} and {{usex}} (example)
+        // test with geloven
+        result = TemplateParser.parse(result, new ExampleTemplateHandler());
+
+        // handles {{qualifier}}, {{q}}, {{i}} and {{qual}}
+        // test with slaaf
+        result = TemplateParser.parse(result, new ListBaseTemplateHandler("(", ")", 0, "qualifier", "q", "i", "qual"));
+
+        // handles [[thing]] (wiki links, should NOT be migrated to use ITemplateHandler)
+        // test with verboden
+        result = result.replaceAll("\\[\\[((?:[^|\\]]+?\\|)*)([^|\\]]+?)]]", "$2");
+
+        // remove quotes used for bold or italics
+        // should NOT be migrated to use ITemplateHandler (it's not a template)
+        result = result.replaceAll("'''?", "");
+
+        return result;
+    }
+
+}
@@ -0,0 +1,242 @@
+package tbsc.dutchhelper.benchmarks;
+
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import org.openjdk.jmh.annotations.*;
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.wikt.DefinitionFormatter;
+import tbsc.dutchhelper.util.wikt.FormattedPage;
+import tbsc.dutchhelper.util.wikt.PageCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a trace of lookups against {@link PageCache} ("tinylfu") and against a plain weighted LRU cache of the same
+ * bounds ("lru", what PageCache was before), looking up each title and caching its page on a miss, like a search does.
+ * The hit ratio, rejections and memory use of each replay are printed after each iteration, since the point is
+ * how many lookups the cache saves, more than how long the cache itself takes.
+ *
+ * The trace is a file written with --trace-lookups, given with -p trace=path. Without one, a trace is made up like the
+ * lookups the cache is for: searches for common words, whose frequency falls off with their rank, and every
+ * {@value #TEXT_EVERY} searches a pasted text of {@value #TEXT_LENGTH} words, {@value #RARE_PERCENT}% of them looked up
+ * nowhere else.
+ *
+ * Pages of the trace's titles are the corpus pages (see {@link Corpus}) for the most common titles, and synthetic pages
+ * of every size for the rest, all formatted before the replay.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageCacheBenchmark {
+
+    private static final int COMMON_WORDS = 5000;
+    private static final int SEARCHES = 20000;
+    private static final int TEXT_EVERY = 500;
+    private static final int TEXT_LENGTH = 300;
+    private static final int RARE_PERCENT = 40;
+    private static final int MAX_SYNTHETIC_SENSES = 24;
+
+    @Param({"lru", "tinylfu"})
+    public String policy;
+
+    @Param({""})
+    public String trace;
+
+    private List<String> lookups;
+    private Map<String, FormattedPage> pages;
+    private Cache cache;
+
+    @Setup
+    public void setup() throws IOException {
+        // only the cache is measured
+        Constants.WARM_START = false;
+        Constants.LOOKUP_TRACE_PATH = null;
+
+        lookups = trace.isEmpty() ? makeTrace() : Files.readAllLines(Paths.get(trace), StandardCharsets.UTF_8);
+        pages = formatPages(lookups);
+        cache = policy.equals("lru") ? new LruCache() : new TinyLfuCache();
+        System.out.printf("%n%d lookups of %d titles, %d KB of pages%n", lookups.size(), pages.size(),
+                pages.values().stream().mapToLong(FormattedPage::getWeight).sum() / 1024);
+    }
+
+    @Benchmark
+    public long replay() {
+        cache.clear();
+        long hits = 0;
+        for (String title : lookups) {
+            if (cache.get(title) != null) {
+                hits++;
+            } else {
+                cache.put(title, pages.get(title));
+            }
+        }
+        return hits;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printStats() {
+        System.out.printf("%n%s: %s%n", policy, cache.getStats());
+    }
+
+    private static List<String> makeTrace() {
+        Random random = new Random(42);
+        // chance of each common word being searched for falls off with its rank (Zipf, exponent 1)
+        double[] cumulative = new double[COMMON_WORDS];
+        double total = 0;
+        for (int i = 0; i < COMMON_WORDS; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+
+        List<String> result = new ArrayList<>();
+        int rare = 0;
+        for (int i = 0; i < SEARCHES; i++) {
+            result.add(commonWord(cumulative, random.nextDouble() * total));
+            if (i % TEXT_EVERY == TEXT_EVERY - 1) {
+                for (int j = 0; j < TEXT_LENGTH; j++) {
+                    result.add(random.nextInt(100) < RARE_PERCENT
+                            ? "zeldzaam" + rare++
+                            : commonWord(cumulative, random.nextDouble() * total));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String commonWord(double[] cumulative, double point) {
+        int index = Arrays.binarySearch(cumulative, point);
+        return "woord" + (index < 0 ? -index - 1 : index);
+    }
+
+    /**
+     * @return Formatted page of each title, corpus pages going to the titles looked up the most
+     */
+    private static Map<String, FormattedPage> formatPages(List<String> lookups) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String title : lookups) {
+            counts.merge(title, 1, Integer::sum);
+        }
+        List<String> titles = new ArrayList<>(counts.keySet());
+        titles.sort(Comparator.comparing((String title) -> -counts.get(title)).thenComparing(title -> title));
+
+        List<WiktionaryPage> corpus = Corpus.pages();
+        Map<String, FormattedPage> result = new HashMap<>();
+        for (int i = 0; i < titles.size(); i++) {
+            String title = titles.get(i);
+            WiktionaryPage page = i < corpus.size()
+                    ? corpus.get(i)
+                    : Corpus.syntheticPage(title, 1 + Math.floorMod(title.hashCode(), MAX_SYNTHETIC_SENSES), 4);
+            result.put(title, DefinitionFormatter.formatPage(page, false));
+        }
+        return result;
+    }
+
+    private interface Cache {
+
+        FormattedPage get(String title);
+
+        void put(String title, FormattedPage page);
+
+        void clear();
+
+        String getStats();
+
+    }
+
+    private static final class TinyLfuCache implements Cache {
+
+        private long hits;
+        private long misses;
+        private long rejections;
+
+        @Override
+        public FormattedPage get(String title) {
+            return PageCache.get().getIfPresent(title);
+        }
+
+        @Override
+        public void put(String title, FormattedPage page) {
+            PageCache.get().put(title, page);
+        }
+
+        @Override
+        public void clear() {
+            PageCache cache = PageCache.get();
+            cache.clear();
+            hits = cache.getHits();
+            misses = cache.getMisses();
+            rejections = cache.getRejections();
+        }
+
+        @Override
+        public String getStats() {
+            PageCache cache = PageCache.get();
+            long replayHits = cache.getHits() - hits;
+            long replayMisses = cache.getMisses() - misses;
+            return String.format("hit ratio %.1f%%, %d rejected, %d pages, ~%d KB",
+                    100.0 * replayHits / Math.max(replayHits + replayMisses, 1), cache.getRejections() - rejections,
+                    cache.size(), cache.getWeight() / 1024);
+        }
+
+    }
+
+    /**
+     * Evicts the least recently used pages until it's within both bounds, like PageCache did before it had admission.
+     */
+    private static final class LruCache implements Cache {
+
+        private final LinkedHashMap<String, FormattedPage> pages = new LinkedHashMap<>(16, 0.75F, true);
+        private long bytes;
+        private long hits;
+        private long misses;
+
+        @Override
+        public FormattedPage get(String title) {
+            FormattedPage page = pages.get(title);
+            if (page == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return page;
+        }
+
+        @Override
+        public void put(String title, FormattedPage page) {
+            FormattedPage previous = pages.put(title, page);
+            bytes += page.getWeight() - (previous == null ? 0 : previous.getWeight());
+            Iterator<FormattedPage> it = pages.values().iterator();
+            while (pages.size() > Constants.PAGE_CACHE_MAX_ENTRIES || bytes > Constants.PAGE_CACHE_MAX_BYTES) {
+                bytes -= it.next().getWeight();
+                it.remove();
+            }
+        }
+
+        @Override
+        public void clear() {
+            pages.clear();
+            bytes = 0;
+            hits = 0;
+            misses = 0;
+        }
+
+        @Override
+        public String getStats() {
+            return String.format("hit ratio %.1f%%, 0 rejected, %d pages, ~%d KB",
+                    100.0 * hits / Math.max(hits + misses, 1), pages.size(), bytes / 1024);
+        }
+
+    }
+
+}
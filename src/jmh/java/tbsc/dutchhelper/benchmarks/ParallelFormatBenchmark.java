@@ -0,0 +1,84 @@
+package tbsc.dutchhelper.benchmarks;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryExample;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionarySense;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import org.openjdk.jmh.annotations.*;
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.wikt.DefinitionFormatter;
+import tbsc.dutchhelper.util.wikt.FormattedPage;
+import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats pages of increasing size sequentially, in parallel, and adaptively (what searches do), to find the size
+ * from which formatting in parallel pays off, and to check {@link Constants#PARALLEL_FORMAT_MIN_CHARS} is about there.
+ * Pages are built by {@link Corpus#syntheticPage}, with 16 senses per entry and as many senses as it takes for their
+ * text to be at least {@link #chars} long, so sizes can be compared to the threshold directly.
+ *
+ * Only shows anything on a machine with more than one core, since with one core nothing is formatted in parallel.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelFormatBenchmark {
+
+    private static final int SENSES_PER_ENTRY = 16;
+
+    /**
+     * Amount of glosses' and examples' text on the page, to compare to
+     * {@link Constants#PARALLEL_FORMAT_MIN_CHARS}.
+     */
+    @Param({"512", "1024", "2048", "4096", "8192", "16384", "32768", "131072"})
+    public int chars;
+
+    private WiktionaryPage page;
+
+    @Setup
+    public void setup() {
+        // senses are about the same length, so one guess from a page of a few of them is close
+        WiktionaryPage sample = Corpus.syntheticPage("synthetic", SENSES_PER_ENTRY, SENSES_PER_ENTRY);
+        int senses = Math.max((int) ((long) chars * SENSES_PER_ENTRY / textLength(sample)), 1);
+        do {
+            page = Corpus.syntheticPage("synthetic", senses++, SENSES_PER_ENTRY);
+        } while (textLength(page) < chars);
+    }
+
+    @Benchmark
+    public FormattedPage sequential() {
+        return DefinitionFormatter.formatPage(page, false);
+    }
+
+    @Benchmark
+    public FormattedPage parallel() {
+        return DefinitionFormatter.formatPage(page, true);
+    }
+
+    @Benchmark
+    public FormattedPage adaptive() {
+        return DefinitionFormatter.formatPage(page);
+    }
+
+    private static long textLength(WiktionaryPage page) {
+        long length = 0;
+        for (IWiktionaryEntry entry : WiktionaryHelper.getDutchEntries(page)) {
+            for (IWiktionarySense sense : entry.getSenses()) {
+                length += sense.getGloss().getText().length();
+                for (IWiktionaryExample example : sense.getExamples()) {
+                    length += example.getText().length();
+                }
+            }
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,54 @@
+package tbsc.dutchhelper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tbsc.dutchhelper.util.wikt.WikitextFormatter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass {@link WikitextFormatter} against the old multi-pass removeFormatting
+ * ({@link LegacyFormatting}) on each section of the snippet corpus.
+ *
+ * Run with gradle jmh.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoveFormattingBenchmark {
+
+    /**
+     * Section of the corpus to run over, see {@link Corpus#snippets(String)}.
+     */
+    @Param({"glosses", "verb-forms", "examples", "labels"})
+    public String section;
+
+    private String[] snippets;
+
+    @Setup
+    public void setup() {
+        snippets = Corpus.snippets(section);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        for (String snippet : snippets) {
+            bh.consume(LegacyFormatting.removeFormatting(snippet));
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        for (String snippet : snippets) {
+            bh.consume(WikitextFormatter.get().format(snippet));
+        }
+    }
+
+}
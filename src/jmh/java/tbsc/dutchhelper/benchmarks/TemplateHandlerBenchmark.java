@@ -0,0 +1,73 @@
+package tbsc.dutchhelper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tbsc.dutchhelper.util.wikt.handlers.TemplateHandlerRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each template handler on its own, over every use of its template in the snippet corpus.
+ * Goes through {@link TemplateHandlerRegistry#handle(String, String)}, so parsing the template's parameters is
+ * included, same as when formatting.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateHandlerBenchmark {
+
+    /**
+     * Template name, one per handler.
+     */
+    @Param({"nl-verb form of", "nl-noun form of", "nl-adj form of", "ux", "lb", "gloss", "q", "syn",
+            "non-gloss definition", "l"})
+    public String template;
+
+    private String[] templates;
+
+    @Setup
+    public void setup() {
+        templates = findTemplates(Corpus.allSnippets(), template);
+        if (templates.length == 0) {
+            throw new IllegalStateException("The corpus doesn't use {{" + template + "}}");
+        }
+    }
+
+    @Benchmark
+    public void handle(Blackhole bh) {
+        TemplateHandlerRegistry registry = TemplateHandlerRegistry.get();
+        for (String text : templates) {
+            bh.consume(registry.handle(template, text));
+        }
+    }
+
+    /**
+     * @return Text of every use of the template (without the braces), ending at the first "}}" like JWKTL does
+     */
+    private static String[] findTemplates(String[] snippets, String name) {
+        List<String> result = new ArrayList<>();
+        String start = "{{" + name + "|";
+        for (String snippet : snippets) {
+            int from = snippet.indexOf(start);
+            while (from != -1) {
+                int end = snippet.indexOf("}}", from);
+                if (end == -1) {
+                    break;
+                }
+                result.add(snippet.substring(from + 2, end));
+                from = snippet.indexOf(start, end);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+}
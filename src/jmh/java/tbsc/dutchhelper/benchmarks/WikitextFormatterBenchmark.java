@@ -0,0 +1,69 @@
+package tbsc.dutchhelper.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tbsc.dutchhelper.util.wikt.WikitextFormatter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats the whole snippet corpus with one shared {@link WikitextFormatter} from several threads at once, to check
+ * that throughput grows with the number of threads (the formatter shares nothing mutable between them).
+ * Each benchmark is the same work with a different number of threads; JMH reports the throughput of all threads
+ * together, so with perfect scaling twoThreads is twice oneThread.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WikitextFormatterBenchmark {
+
+    private WikitextFormatter formatter;
+    private String[] snippets;
+
+    @Setup
+    public void setup() {
+        formatter = WikitextFormatter.get();
+        snippets = Corpus.allSnippets();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void oneThread(Blackhole bh) {
+        formatAll(bh);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void twoThreads(Blackhole bh) {
+        formatAll(bh);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fourThreads(Blackhole bh) {
+        formatAll(bh);
+    }
+
+    /**
+     * One thread per core.
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void allCores(Blackhole bh) {
+        formatAll(bh);
+    }
+
+    private void formatAll(Blackhole bh) {
+        for (String snippet : snippets) {
+            bh.consume(formatter.format(snippet));
+        }
+    }
+
+}
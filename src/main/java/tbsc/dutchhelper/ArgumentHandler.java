@@ -1,10 +1,17 @@
 package tbsc.dutchhelper;
 
+import com.sleepycat.je.EnvironmentConfig;
 import org.apache.commons.cli.*;
 import tbsc.dutchhelper.util.DebugHelper;
 import tbsc.dutchhelper.util.Log;
+import tbsc.dutchhelper.util.wikt.DutchIndex;
+import tbsc.dutchhelper.util.wikt.JETuning;
+import tbsc.dutchhelper.util.wikt.JEWiktionaryEdition;
+import tbsc.dutchhelper.util.wikt.MappedWiktionaryEdition;
+import tbsc.dutchhelper.util.wikt.MemoryBackend;
 
 import java.io.File;
+import java.io.IOException;
 
 /**
  * Uses Apache's commons-cli to handle arguments.
@@ -29,6 +36,97 @@ public class ArgumentHandler {
                 .build());
         // options.addOption("debug", true, "enable specific debug modes");
         options.addOption("p", "database-path", true, "change path to database");
+        options.addOption(Option.builder()
+                .longOpt("build-index")
+                .desc("build an index of only the database's Dutch entries, used instead of the database from then on")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("no-index")
+                .desc("open the full database even if it has a Dutch index")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("no-mapped")
+                .desc("open the Dutch index's database instead of its mapped dictionary")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("backend")
+                .desc("read the database with a specific backend: je, mapped or memory")
+                .hasArg(true)
+                .argName("name")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("je-config")
+                .desc("read Berkeley DB JE parameters from a properties file, instead of ~/.dutchhelper/je.properties")
+                .hasArg(true)
+                .argName("file")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("je-cache")
+                .desc("size of JE's cache, in bytes (like 512m) or percent of the heap (like 40%)")
+                .hasArg(true)
+                .argName("size")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("je-shared-cache")
+                .desc("share JE's cache between every database that's open at once")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("je-no-locking")
+                .desc("read the database without taking locks, since it's never written to")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("je-read-buffer")
+                .desc("size of the buffers JE reads its log files with (like 8k)")
+                .hasArg(true)
+                .argName("size")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("je")
+                .desc("set any JE parameter, like je.log.fileCacheSize=200; can be given more than once")
+                .hasArg(true)
+                .argName("name=value")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("warm-cache")
+                .desc("load the database's index into memory after opening it")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("no-warm-start")
+                .desc("don't remember the most looked up pages, or preload them on start")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("trace-lookups")
+                .desc("append every word looked up in the page cache to a file, for the page cache benchmark")
+                .hasArg(true)
+                .argName("file")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("audio-cache")
+                .desc("change directory audio files are cached in")
+                .hasArg(true)
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("prefetch-audio")
+                .desc("download pronunciations right after searching, before play is pressed")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("batch")
+                .desc("look up every word in a file (or - for stdin) without the GUI, requires --out")
+                .hasArg(true)
+                .argName("input")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("out")
+                .desc("file --batch writes its results to, as JSON Lines")
+                .hasArg(true)
+                .argName("file")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("threads")
+                .desc("how many words --batch looks up at once")
+                .hasArg(true)
+                .argName("n")
+                .build());
         options.addOption("h", "help", false, "print this message");
 
         CommandLineParser parser = new DefaultParser();
@@ -63,6 +161,61 @@ public class ArgumentHandler {
         if (cmd.hasOption("p")) {
             handleCustomDatabasePath(cmd.getOptionValue("p"));
         }
+
+        // before building the index, which opens the database too
+        handleJETuning(cmd);
+
+        // building the index doesn't return, the program exits once it's done
+        if (cmd.hasOption("build-index")) {
+            handleBuildIndex();
+        }
+
+        if (cmd.hasOption("no-index")) {
+            Constants.USE_DUTCH_INDEX = false;
+            log.i("Dutch index disabled");
+        }
+
+        if (cmd.hasOption("no-mapped")) {
+            Constants.USE_MAPPED_DICTIONARY = false;
+            log.i("Mapped dictionary disabled");
+        }
+
+        if (cmd.hasOption("backend")) {
+            handleBackend(cmd.getOptionValue("backend"));
+        }
+
+        if (cmd.hasOption("warm-cache")) {
+            Constants.WARM_DATABASE_CACHE = true;
+            log.i("Database cache warm-up enabled");
+        }
+
+        if (cmd.hasOption("no-warm-start")) {
+            Constants.WARM_START = false;
+            log.i("Warm start disabled");
+        }
+
+        if (cmd.hasOption("trace-lookups")) {
+            Constants.LOOKUP_TRACE_PATH = cmd.getOptionValue("trace-lookups");
+            log.i("Tracing lookups to %s", Constants.LOOKUP_TRACE_PATH);
+        }
+
+        if (cmd.hasOption("audio-cache")) {
+            handleAudioCachePath(cmd.getOptionValue("audio-cache"));
+        }
+
+        if (cmd.hasOption("prefetch-audio")) {
+            Constants.AUDIO_PREFETCH = true;
+            log.i("Audio prefetching enabled");
+        }
+
+        if (cmd.hasOption("threads")) {
+            handleBatchThreads(cmd.getOptionValue("threads"));
+        }
+
+        // batch mode doesn't return, it runs instead of the GUI
+        if (cmd.hasOption("batch")) {
+            handleBatch(cmd.getOptionValue("batch"), cmd.getOptionValue("out"));
+        }
     }
 
     private static void handleCustomDatabasePath(String path) {
@@ -74,4 +227,113 @@ public class ArgumentHandler {
         log.i("Database path set to %s", path);
     }
 
+    private static void handleJETuning(CommandLine cmd) {
+        try {
+            if (cmd.hasOption("je-config")) {
+                File config = new File(cmd.getOptionValue("je-config"));
+                if (!config.isFile()) {
+                    log.e("Invalid JE config (%s), file not found.", config);
+                    System.exit(7);
+                }
+                JETuning.readConfig(config);
+                Constants.JE_CONFIG_PATH = config.getPath();
+                log.i("JE config set to %s", config);
+            }
+            if (cmd.hasOption("je-cache")) {
+                JETuning.setCache(cmd.getOptionValue("je-cache"));
+            }
+            if (cmd.hasOption("je-shared-cache")) {
+                JETuning.set(EnvironmentConfig.SHARED_CACHE, "true");
+            }
+            if (cmd.hasOption("je-no-locking")) {
+                JETuning.set(EnvironmentConfig.ENV_IS_LOCKING, "false");
+            }
+            if (cmd.hasOption("je-read-buffer")) {
+                // pages are read with the first, the whole log (warming up, building the index) with the second
+                String size = Long.toString(JETuning.parseSize(cmd.getOptionValue("je-read-buffer")));
+                JETuning.set(EnvironmentConfig.LOG_FAULT_READ_SIZE, size);
+                JETuning.set(EnvironmentConfig.LOG_ITERATOR_READ_SIZE, size);
+            }
+            if (cmd.hasOption("je")) {
+                for (String param : cmd.getOptionValues("je")) {
+                    int equals = param.indexOf('=');
+                    if (equals < 0) {
+                        throw new IllegalArgumentException("Expected name=value, got " + param);
+                    }
+                    JETuning.set(param.substring(0, equals).trim(), param.substring(equals + 1).trim());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.e("Invalid JE setting: %s", e.getMessage());
+            System.exit(7);
+        }
+    }
+
+    private static void handleBuildIndex() {
+        try {
+            DutchIndex.build(new File(Constants.DATABASE_PATH));
+        } catch (IOException | RuntimeException e) {
+            log.e("Building Dutch index failed: %s", e.getMessage());
+            System.exit(5);
+        }
+        System.exit(0);
+    }
+
+    private static void handleBackend(String backend) {
+        switch (backend) {
+            case JEWiktionaryEdition.BACKEND_NAME:
+            case MappedWiktionaryEdition.BACKEND_NAME:
+            case MemoryBackend.BACKEND_NAME:
+                Constants.DICTIONARY_BACKEND = backend;
+                log.i("Dictionary backend set to %s", backend);
+                break;
+            default:
+                log.e("Invalid dictionary backend (%s), must be je, mapped or memory.", backend);
+                System.exit(6);
+        }
+    }
+
+    private static void handleAudioCachePath(String path) {
+        File directory = new File(path);
+        // it's fine if it doesn't exist yet, it'll be created when needed
+        if (directory.exists() && !directory.isDirectory()) {
+            log.e("Invalid audio cache path (%s), not a directory.", path);
+            System.exit(2);
+        }
+        Constants.AUDIO_CACHE_PATH = path;
+        log.i("Audio cache path set to %s", path);
+    }
+
+    private static void handleBatchThreads(String threads) {
+        try {
+            Constants.BATCH_THREADS = Integer.parseInt(threads);
+        } catch (NumberFormatException e) {
+            Constants.BATCH_THREADS = 0;
+        }
+        if (Constants.BATCH_THREADS < 1) {
+            log.e("Invalid amount of threads (%s), must be a positive number.", threads);
+            System.exit(3);
+        }
+    }
+
+    private static void handleBatch(String input, String output) {
+        if (output == null) {
+            log.e("--batch requires an output file (--out).");
+            System.exit(3);
+        }
+        if (!"-".equals(input) && !new File(input).isFile()) {
+            log.e("Invalid batch input (%s), file not found.", input);
+            System.exit(3);
+        }
+
+        try {
+            new BatchLookup(Constants.BATCH_THREADS).run(input, output);
+        } catch (IOException e) {
+            log.e("Batch lookup failed: %s", e.getMessage());
+            System.exit(4);
+        }
+        // the database is closed by its shutdown hook
+        System.exit(0);
+    }
+
 }
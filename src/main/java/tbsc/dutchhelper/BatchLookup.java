@@ -0,0 +1,159 @@
+package tbsc.dutchhelper;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import tbsc.dutchhelper.util.Log;
+import tbsc.dutchhelper.util.wikt.DefinitionFormatter;
+import tbsc.dutchhelper.util.wikt.FormattedPage;
+import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
+import tbsc.dutchhelper.util.wikt.render.JsonRenderer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless mode for looking up and formatting whole word lists without the GUI, started with --batch.
+ * Words are read one per line (from a file, or stdin if the input is "-"), looked up and formatted on a pool of
+ * {@link Constants#BATCH_THREADS} threads, and written as JSON Lines, one object per word, in the input's order.
+ *
+ * Only a window of words is in flight at once, so memory use doesn't grow with the size of the list:
+ * when the window is full, reading waits until the oldest word was written.
+ *
+ * Each line looks like one of these:
+ * {"word":"huis","found":true,"dutch":true,"audioFile":"Nl-huis.ogg","definitions":["..."]}
+ * {"word":"xyz","found":false}
+ * {"word":"...","error":"..."}
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class BatchLookup {
+
+    /**
+     * How many words per thread can be in flight (being looked up, or done but waiting for older words).
+     */
+    private static final int WINDOW_PER_THREAD = 32;
+
+    private static Log log = new Log(BatchLookup.class);
+
+    private final int threads;
+
+    private final AtomicLong found = new AtomicLong();
+    private final AtomicLong notDutch = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public BatchLookup(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Looks up every word in the input and writes the results to the output.
+     * @param input File to read words from, or "-" for stdin
+     * @param output File to write JSON Lines to
+     */
+    public void run(String input, String output) throws IOException {
+        WiktionaryHelper.load();
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Batch worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long startTime = System.nanoTime();
+        long words = 0;
+        try (BufferedReader in = openInput(input);
+             Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8))) {
+            // results in input order; the oldest one is written before more words are read once it's full
+            Deque<Future<String>> window = new ArrayDeque<>();
+            int windowSize = threads * WINDOW_PER_THREAD;
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String word = line.trim();
+                if (word.isEmpty()) {
+                    continue;
+                }
+
+                window.addLast(workers.submit(() -> lookup(word)));
+                words++;
+                if (window.size() >= windowSize) {
+                    write(window.removeFirst(), out);
+                }
+            }
+
+            while (!window.isEmpty()) {
+                write(window.removeFirst(), out);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        log.i("Looked up %d words in %.1f seconds (%.0f words/s, %d threads)",
+                words, seconds, words / Math.max(seconds, 1e-9), threads);
+        log.i("%d found, %d not Dutch, %d not found, %d failed",
+                found.get(), notDutch.get(), notFound.get(), errors.get());
+    }
+
+    private static BufferedReader openInput(String input) throws IOException {
+        InputStream in = "-".equals(input) ? System.in : new FileInputStream(input);
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static void write(Future<String> result, Writer out) throws IOException {
+        try {
+            out.write(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a lookup");
+        } catch (ExecutionException e) {
+            // lookup catches everything itself, so this can't really happen
+            throw new IOException(e.getCause());
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Runs on a worker thread.
+     * @return The word's JSON line, without the line break
+     */
+    private String lookup(String word) {
+        StringBuilder json = new StringBuilder("{\"word\":");
+        JsonRenderer.appendString(json, word);
+
+        try {
+            IWiktionaryPage page = WiktionaryHelper.get().getPageForWord(word);
+            if (page == null) {
+                notFound.incrementAndGet();
+                return json.append(",\"found\":false}").toString();
+            }
+
+            FormattedPage formatted = DefinitionFormatter.formatPage(page);
+            boolean dutch = formatted.isDutch();
+            (dutch ? found : notDutch).incrementAndGet();
+
+            json.append(",\"found\":true,\"dutch\":").append(dutch).append(",\"audioFile\":");
+            JsonRenderer.appendString(json, formatted.getAudioFile());
+            json.append(",\"definitions\":");
+            JsonRenderer.appendStrings(json, formatted.getDefinitions());
+            return json.append('}').toString();
+        } catch (RuntimeException e) {
+            // one bad page shouldn't stop the whole batch
+            errors.incrementAndGet();
+            log.w("Looking up %s failed: %s", word, e);
+            json.setLength(0);
+            json.append("{\"word\":");
+            JsonRenderer.appendString(json, word);
+            json.append(",\"error\":");
+            JsonRenderer.appendString(json, String.valueOf(e));
+            return json.append('}').toString();
+        }
+    }
+
+}
@@ -1,5 +1,9 @@
 package tbsc.dutchhelper;
 
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Created on 11/08/2017
  * @author tbsc
@@ -21,6 +25,139 @@ public class Constants {
 //    public static String DATABASE_PATH = "D:\\Development\\Java\\jwktl-dump-je5.0.73-2";
     public static String DATABASE_PATH = "D:\\Development\\Java\\jwktl-dump-je5.0.73-withinflections";
 
+    /**
+     * Whether the Dutch-only index ({@link tbsc.dutchhelper.util.wikt.DutchIndex}) should be opened instead of the
+     * full database when it exists. Disabled through the --no-index argument.
+     */
+    public static boolean USE_DUTCH_INDEX = true;
+
+    /**
+     * Whether the Dutch index's mapped dictionary ({@link tbsc.dutchhelper.util.wikt.MappedWiktionaryEdition}) should
+     * be opened instead of the index's database when it has one. Disabled through the --no-mapped argument.
+     */
+    public static boolean USE_MAPPED_DICTIONARY = true;
+
+    /**
+     * Name of the {@link tbsc.dutchhelper.util.wikt.DictionaryBackend} the database is opened with: "je", "mapped" or
+     * "memory". Null opens the mapped dictionary if there is one, and JE otherwise. Set through the --backend argument.
+     */
+    public static String DICTIONARY_BACKEND = null;
+
+    /**
+     * Properties file of Berkeley DB JE parameters the database is opened with, if it exists
+     * (see {@link tbsc.dutchhelper.util.wikt.JETuning}). Changed through the --je-config argument.
+     */
+    public static String JE_CONFIG_PATH =
+            new File(System.getProperty("user.home"), ".dutchhelper/je.properties").getPath();
+
+    /**
+     * Berkeley DB JE parameters set through the --je-* arguments, which override the ones in {@link #JE_CONFIG_PATH}.
+     */
+    public static Properties JE_PARAMS = new Properties();
+
+    /**
+     * Whether JE's cache should be filled with the database's B-trees right after opening it, so the first searches
+     * aren't slowed down by disk reads. Enabled through the --warm-cache argument.
+     */
+    public static boolean WARM_DATABASE_CACHE = false;
+
+    /**
+     * Longest time, in milliseconds, warming up the database cache may take.
+     */
+    public static long WARM_DATABASE_CACHE_MAX_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * Whether the pages looked up the most are remembered when the program closes, and read into the page cache in the
+     * background on the next start (see {@link tbsc.dutchhelper.util.wikt.HotTitles}). Disabled through the
+     * --no-warm-start argument.
+     */
+    public static boolean WARM_START = true;
+
+    /**
+     * Amount of pages read into the page cache on start, at most.
+     */
+    public static int WARM_START_PAGES = 128;
+
+    /**
+     * Maximum amount of formatted pages kept in {@link tbsc.dutchhelper.util.wikt.PageCache}.
+     */
+    public static int PAGE_CACHE_MAX_ENTRIES = 512;
+
+    /**
+     * Maximum approximate size, in bytes, of all formatted pages kept in {@link tbsc.dutchhelper.util.wikt.PageCache}.
+     */
+    public static long PAGE_CACHE_MAX_BYTES = 8 * 1024 * 1024;
+
+    /**
+     * File every title looked up in the page cache is appended to, for replaying with the PageCacheBenchmark, or null
+     * to not trace lookups (see {@link tbsc.dutchhelper.util.wikt.LookupTrace}). Set through --trace-lookups.
+     */
+    public static String LOOKUP_TRACE_PATH = null;
+
+    /**
+     * Pages whose glosses and examples together are at least this many characters long are formatted in parallel
+     * (see {@link tbsc.dutchhelper.util.wikt.DefinitionFormatter#formatPage}). Negative to never format in parallel.
+     * Below this, handing senses to other threads costs more than it saves; ParallelFormatBenchmark shows where.
+     * Formatting takes about 19ns a character, and handing senses out adds 7µs at 512 characters to 12µs at 2048,
+     * so with two cores, where splitting saves half the time, it only pays off from 2048 (18µs saved, 12µs added).
+     */
+    public static int PARALLEL_FORMAT_MIN_CHARS = 2 * 1024;
+
+    /**
+     * Maximum amount of words suggested while typing (see {@link tbsc.dutchhelper.util.wikt.Autocomplete}).
+     */
+    public static int AUTOCOMPLETE_MAX_SUGGESTIONS = 10;
+
+    /**
+     * How long, in milliseconds, typing has to stop before suggestions are looked for.
+     */
+    public static long AUTOCOMPLETE_DELAY_MILLIS = 150;
+
+    /**
+     * Wiki page of an audio file is this followed by the filename.
+     * Can be pointed at a local server for testing audio URL fetching.
+     */
+    public static String AUDIO_FILE_PAGE_URL = "https://en.wiktionary.org/wiki/File:";
+
+    /**
+     * How long, in milliseconds, a resolved audio URL stays in {@link tbsc.dutchhelper.util.wikt.AudioUrlCache}.
+     */
+    public static long AUDIO_URL_TTL = TimeUnit.DAYS.toMillis(30);
+
+    /**
+     * How long, in milliseconds, {@link tbsc.dutchhelper.util.wikt.AudioUrlCache} remembers that an audio file
+     * has no URL, before trying to fetch it again.
+     */
+    public static long AUDIO_URL_NEGATIVE_TTL = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Directory downloaded audio files are cached in. Compile-time value is the default value, and changing it can be
+     * done through the --audio-cache argument.
+     */
+    public static String AUDIO_CACHE_PATH = new File(System.getProperty("user.home"), ".dutchhelper/audio").getPath();
+
+    /**
+     * Maximum size, in bytes, of all files in the audio cache. Least recently played files are deleted first.
+     */
+    public static long AUDIO_CACHE_MAX_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Whether audio should also be cached decoded, so replaying it doesn't need decoding.
+     * Decoded audio is about 10 times bigger, so less of it fits in the cache.
+     */
+    public static boolean AUDIO_CACHE_PCM = true;
+
+    /**
+     * Whether a search that finds a pronunciation should also download it in the background, before play is pressed.
+     * Off by default, since most searches are never played; enabled through the --prefetch-audio argument.
+     */
+    public static boolean AUDIO_PREFETCH = false;
+
+    /**
+     * How many words are looked up at once in batch mode (see {@link BatchLookup}). Changed with --threads.
+     */
+    public static int BATCH_THREADS = Runtime.getRuntime().availableProcessors();
+
     /**
      * Color of the error label ({@link DutchHelperApplication#errorLabel}).
      */
@@ -12,10 +12,15 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import tbsc.dutchhelper.eventhandlers.AutocompleteHandler;
 import tbsc.dutchhelper.eventhandlers.PlayAudioEventHandler;
 import tbsc.dutchhelper.eventhandlers.SearchEventHandler;
+import tbsc.dutchhelper.eventhandlers.TextAnalysisHandler;
 import tbsc.dutchhelper.util.DebugHelper;
 import tbsc.dutchhelper.util.Log;
+import tbsc.dutchhelper.util.StartupTimer;
+import tbsc.dutchhelper.util.wikt.Autocomplete;
+import tbsc.dutchhelper.util.wikt.InflectionIndex;
 import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
 
 /**
@@ -24,12 +29,42 @@ import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
  * -d: Enable all debug modes
  * --debug: Enable specific debug modes (explained further down)
  * -p, --database-path: Set a custom path to the Wiktionary database
+ * --build-index: Build an index of only the database's Dutch entries and exit (see {@link tbsc.dutchhelper.util.wikt.DutchIndex})
+ * --no-index: Open the full database even if it has a Dutch index
+ * --no-mapped: Open the Dutch index's database instead of its memory-mapped dictionary
+ * --backend: Read the database with a specific backend: je, mapped or memory (see {@link tbsc.dutchhelper.util.wikt.DictionaryBackend})
+ * --je-config: Read Berkeley DB JE parameters from a file (see {@link tbsc.dutchhelper.util.wikt.JETuning})
+ * --je-cache: Set the size of JE's cache, in bytes or percent of the heap
+ * --je-shared-cache: Share JE's cache between databases that are open at once
+ * --je-no-locking: Read the database without taking locks
+ * --je-read-buffer: Set the size of the buffers JE reads its log files with
+ * --je: Set any JE parameter, as name=value
+ * --warm-cache: Load the database's index into memory right after opening it
+ * --no-warm-start: Don't remember the most looked up pages, or preload them on start (see {@link tbsc.dutchhelper.util.wikt.HotTitles})
+ * --trace-lookups: Append every word looked up in the page cache to a file (see {@link tbsc.dutchhelper.util.wikt.LookupTrace})
+ * --audio-cache: Set a custom directory for cached audio files
+ * --prefetch-audio: Download pronunciations in the background as soon as a word is found
+ * --batch, --out: Look up a list of words without the GUI and write the results to a file (see {@link BatchLookup})
+ * --threads: How many words batch mode looks up at once
  *
  * Debug modes are explained in {@link DebugHelper}.
  *
  * Exit codes:
  * 0: no error
  * 1: invalid database path
+ * 2: invalid audio cache path
+ * 3: invalid batch arguments
+ * 4: batch lookup failed (couldn't read input or write output)
+ * 5: building the Dutch index failed
+ * 6: invalid dictionary backend
+ * 7: invalid JE settings (--je-config, --je-cache, --je-read-buffer or --je)
+ *
+ * The database is opened in the background while the window is set up, since it takes a few seconds;
+ * searches made before it's open wait for it. Words are suggested while typing once the database is open, if it has
+ * a Dutch index.
+ *
+ * With the "Text" button toggled on, a whole text can be pasted into the word field instead of a word, and every word
+ * in it is looked up (see {@link TextAnalysisHandler}).
  *
  * Small note to anyone, really: Null typically shouldn't be used.
  * Null safety can be achieved by not using null, so try to not return null when possible.
@@ -48,6 +83,7 @@ public class DutchHelperApplication extends Application {
     public Stage stage;
     public GridPane grid;
     public TextField wordField;
+    public ToggleButton textModeToggle;
     public Button searchBtn;
     public Button playAudioBtn;
     public ListView<String> definitionListView;
@@ -61,10 +97,13 @@ public class DutchHelperApplication extends Application {
      */
     public static StringProperty currentAudioFileProperty = new SimpleStringProperty();
 
+    /**
+     * When JavaFX was launched, for timing how long it took until the window was shown.
+     */
+    private static long launchTime;
+
     @Override
     public void start(Stage stage) throws Exception {
-        WiktionaryHelper.load();
-
         instance = this;
         this.stage = stage;
         stage.setTitle("DutchHelper");
@@ -75,9 +114,18 @@ public class DutchHelperApplication extends Application {
         // let JavaFX calculate dimension
         stage.setScene(new Scene(grid, -1, -1));
 
+        stage.setOnShown(event -> {
+            StartupTimer.record(StartupTimer.Phase.FIRST_FRAME, System.nanoTime() - launchTime);
+            StartupTimer.windowShown();
+        });
         stage.show();
         resetMinSize();
         log.i("Finished startup");
+
+        WiktionaryHelper.whenReady().exceptionally(e -> {
+            showError("couldn't load database", String.valueOf(e.getMessage()));
+            return null;
+        });
     }
 
     /* GUI setup */
@@ -104,12 +152,33 @@ public class DutchHelperApplication extends Application {
         errorLabel.setTextFill(Paint.valueOf(Constants.ERROR_LABEL_COLOR));
         errorLabel.setMaxWidth(Double.MAX_VALUE);
         errorLabel.setAlignment(Pos.CENTER_RIGHT);
-        grid.add(errorLabel, 1, 0, 2, 1);
+        grid.add(errorLabel, 1, 0, 1, 1);
         // not adding this node, because it should only be added when an error needs to be shown
 
+        textModeToggle = new ToggleButton("Text");
+        textModeToggle.setTooltip(new Tooltip("Look up every word of a pasted text"));
+        textModeToggle.setMaxWidth(Double.MAX_VALUE);
+        grid.add(textModeToggle, 2, 0);
+        log.d("Added text mode toggle");
+
         wordField = new TextField();
         wordField.setMaxWidth(Double.MAX_VALUE);
-        wordField.setOnAction(new SearchEventHandler());
+        // a text field drops line breaks, gluing the last word of a pasted line to the first of the next
+        wordField.setTextFormatter(new TextFormatter<String>(change -> {
+            if (textModeToggle.isSelected()) {
+                change.setText(change.getText().replaceAll("[\\r\\n\\t]+", " "));
+            }
+            return change;
+        }));
+        SearchEventHandler searchHandler = new SearchEventHandler();
+        TextAnalysisHandler textHandler = new TextAnalysisHandler();
+        wordField.setOnAction(event -> (textModeToggle.isSelected() ? textHandler : searchHandler).handle(event));
+        AutocompleteHandler autocompleteHandler = new AutocompleteHandler(wordField);
+        wordField.textProperty().addListener(autocompleteHandler);
+        textModeToggle.selectedProperty().addListener((observable, oldValue, textMode) -> {
+            autocompleteHandler.setEnabled(!textMode);
+            wordField.setPromptText(textMode ? "Paste Dutch text" : "");
+        });
         grid.add(wordField, 0, 1, 2, 1);
         log.d("Added word text field");
 
@@ -219,8 +288,18 @@ public class DutchHelperApplication extends Application {
     }
 
     public static void main(String[] args) {
+        StartupTimer.recordJvmStart();
+
+        long argsTime = System.nanoTime();
         ArgumentHandler.handle(args);
+        StartupTimer.record(StartupTimer.Phase.ARGUMENT_PARSING, System.nanoTime() - argsTime);
+
         log.i("Starting DutchHelper version " + Constants.VERSION);
+        // opening the database takes the longest, so start it before JavaFX
+        WiktionaryHelper.loadAsync();
+        Autocomplete.loadAsync();
+        InflectionIndex.loadAsync();
+        launchTime = System.nanoTime();
         launch(args);
     }
 
@@ -0,0 +1,163 @@
+package tbsc.dutchhelper.eventhandlers;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.event.ActionEvent;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.Log;
+import tbsc.dutchhelper.util.wikt.Autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shows word suggestions under the word field while the user is typing (see {@link Autocomplete}).
+ * Suggestions are only looked for once typing stopped for {@link Constants#AUTOCOMPLETE_DELAY_MILLIS}, and on a
+ * background thread; if the text changed by the time they're ready, they're dropped.
+ * Picking a suggestion puts it in the word field and searches for it.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class AutocompleteHandler implements ChangeListener<String> {
+
+    private static Log log = new Log(AutocompleteHandler.class);
+
+    private static final ExecutorService SUGGEST_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Autocomplete");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TextField wordField;
+    private final ContextMenu popup = new ContextMenu();
+    private final PauseTransition delay = new PauseTransition(Duration.millis(Constants.AUTOCOMPLETE_DELAY_MILLIS));
+
+    /**
+     * Incremented on every change of the text; suggestions for an older generation are stale.
+     */
+    private final AtomicLong currentGeneration = new AtomicLong();
+
+    /**
+     * Set while a picked suggestion is put in the field, so it doesn't suggest itself again.
+     */
+    private boolean picking = false;
+
+    /**
+     * Off in text mode, where a whole text is typed instead of a word.
+     */
+    private boolean enabled = true;
+
+    public AutocompleteHandler(TextField wordField) {
+        this.wordField = wordField;
+        delay.setOnFinished(event -> requestSuggestions());
+        // searching (pressing enter) means the user is done typing
+        wordField.addEventHandler(ActionEvent.ACTION, event -> hide());
+        wordField.focusedProperty().addListener((observable, oldValue, focused) -> {
+            if (!focused) {
+                hide();
+            }
+        });
+    }
+
+    @Override
+    public void changed(ObservableValue<? extends String> observable, String oldValue, String newValue) {
+        currentGeneration.incrementAndGet();
+        if (picking || !enabled || newValue.trim().isEmpty()) {
+            hide();
+            return;
+        }
+        // restarts the delay if it's already running
+        delay.playFromStart();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            hide();
+        }
+    }
+
+    /**
+     * Hides the suggestions, and drops any that are still being looked for.
+     */
+    public void hide() {
+        delay.stop();
+        currentGeneration.incrementAndGet();
+        popup.hide();
+    }
+
+    private void requestSuggestions() {
+        Autocomplete autocomplete = Autocomplete.get();
+        if (autocomplete == null) {
+            // not loaded yet
+            return;
+        }
+
+        String text = wordField.getText();
+        long generation = currentGeneration.get();
+        CompletableFuture.supplyAsync(() -> {
+            long startTime = System.nanoTime();
+            List<String> suggestions = autocomplete.suggest(text, Constants.AUTOCOMPLETE_MAX_SUGGESTIONS);
+            log.d(() -> String.format("%d suggestions for %s in %dus", suggestions.size(), text,
+                    (System.nanoTime() - startTime) / 1000));
+            return suggestions;
+        }, SUGGEST_EXECUTOR).whenComplete((suggestions, e) -> {
+            if (e != null) {
+                log.w("Finding suggestions for %s failed: %s", text, e);
+                suggestions = Collections.emptyList();
+            }
+            List<String> result = suggestions;
+            Platform.runLater(() -> show(generation, result));
+        });
+    }
+
+    private void show(long generation, List<String> suggestions) {
+        if (generation != currentGeneration.get() || !wordField.isFocused()) {
+            return;
+        }
+        if (suggestions.isEmpty()) {
+            popup.hide();
+            return;
+        }
+
+        List<CustomMenuItem> items = new ArrayList<>(suggestions.size());
+        for (String suggestion : suggestions) {
+            // a label instead of a MenuItem's text, so it doesn't hide the keyboard focus from the field
+            CustomMenuItem item = new CustomMenuItem(new Label(suggestion), true);
+            item.setOnAction(event -> pick(suggestion));
+            items.add(item);
+        }
+        popup.getItems().setAll(items);
+        if (!popup.isShowing()) {
+            popup.show(wordField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void pick(String suggestion) {
+        picking = true;
+        try {
+            wordField.setText(suggestion);
+            wordField.positionCaret(suggestion.length());
+        } finally {
+            picking = false;
+        }
+        log.d("Picked suggestion %s", suggestion);
+        wordField.fireEvent(new ActionEvent());
+    }
+
+}
@@ -1,20 +1,37 @@
 package tbsc.dutchhelper.eventhandlers;
 
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
+import tbsc.dutchhelper.Constants;
 import tbsc.dutchhelper.util.wikt.DefinitionFormatter;
 import tbsc.dutchhelper.DutchHelperApplication;
+import tbsc.dutchhelper.util.AudioService;
 import tbsc.dutchhelper.util.Log;
+import tbsc.dutchhelper.util.wikt.FormattedPage;
+import tbsc.dutchhelper.util.wikt.InflectionIndex;
+import tbsc.dutchhelper.util.wikt.PageCache;
 import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Handles searches.
  * Executed when the search button is pressed.
  *
+ * The GUI is reset on the FX thread, and then the page is read and formatted on a background thread, and the result
+ * is shown back on the FX thread. Starting a new search cancels the previous one if it's still running.
+ *
+ * If the word is an inflected form (see {@link InflectionIndex}), its lemmas are read and formatted by the same search
+ * and shown after it, so searching for "liep" also shows "lopen".
+ *
  * Created on 12/08/2017
  * @author tbsc
  * @since 2.0.0
@@ -23,24 +40,28 @@ public class SearchEventHandler implements EventHandler<ActionEvent> {
 
     private static Log log = new Log(SearchEventHandler.class);
 
+    /**
+     * Database reads and formatting happen here, so a slow search never freezes the GUI.
+     * Two threads, so a new search doesn't have to wait for a stale one that's stuck reading the database.
+     */
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "Search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Incremented by every search; a search whose generation isn't the current one is stale, and its result is dropped.
+     */
+    private static final AtomicLong currentGeneration = new AtomicLong();
+    private static CompletableFuture<Void> currentSearch;
+
     @Override
     public void handle(ActionEvent event) {
         log.i("Search event handler called, beginning search");
-        // clear error label before starting
-        DutchHelperApplication.showError("");
-        log.d("Cleared error label");
-
-        // remove all previous definitions before continuing
-        DutchHelperApplication.get().definitionListView.setItems(FXCollections.emptyObservableList());
-        log.d("Cleared definitions ListView");
-
-        // remove any previous audio file
-        DutchHelperApplication.currentAudioFileProperty.set("");
-        log.d("Cleared audio file property");
-
-        // when a definition doesn't have a pronunciation, it disables the button, and this reverses it
-        DutchHelperApplication.get().playAudioBtn.setDisable(false);
-        log.d("Re-enabled play-audio button");
+        clearResults();
+        // stops the previous search even if there's nothing to search for
+        long generation = startSearch();
 
         String word = DutchHelperApplication.get().wordField.getText();
 
@@ -52,17 +73,173 @@ public class SearchEventHandler implements EventHandler<ActionEvent> {
 
         log.i("User entered " + word);
 
+        // words that were already searched for don't need to be read and formatted again, nor a background thread
+        // (their lemmas were cached by the same search, unless they were evicted since)
+        FormattedPage cached = PageCache.get().getIfPresent(word);
+        if (cached != null) {
+            List<FormattedPage> cachedLemmas = getCachedLemmas(word);
+            if (cachedLemmas != null) {
+                publish(word, generation, Optional.of(cached), cachedLemmas);
+                return;
+            }
+        }
+
+        // searches made while the database is still opening wait for it, without taking a thread
+        if (!WiktionaryHelper.whenReady().isDone()) {
+            log.d("Database isn't open yet, search for %s will wait for it", word);
+            DutchHelperApplication.showError("loading database...");
+        }
+
+        long startTime = System.nanoTime();
+        CompletableFuture<Optional<FormattedPage>> formattedPage = cached != null
+                ? CompletableFuture.completedFuture(Optional.of(cached))
+                : WiktionaryHelper.whenReady()
+                        .thenApplyAsync(wikt -> lookup(word, generation, startTime), SEARCH_EXECUTOR)
+                        .thenApply(page -> page.map(p -> format(word, p, generation)));
+        currentSearch = formattedPage
+                .thenAcceptAsync(formatted -> {
+                    List<FormattedPage> lemmas = findLemmas(word, generation);
+                    long postTime = System.nanoTime();
+                    Platform.runLater(() -> {
+                        if (log.isDebugEnabled()) {
+                            log.d("Waited %dms for the FX thread",
+                                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postTime));
+                        }
+                        publish(word, generation, formatted, lemmas);
+                        if (log.isDebugEnabled()) {
+                            log.d("Search for %s took %dms in total", word,
+                                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                        }
+                    });
+                }, SEARCH_EXECUTOR)
+                .exceptionally(e -> {
+                    // cancelled searches end up here too, but they're expected
+                    if (!(e instanceof CancellationException) && !(e.getCause() instanceof CancellationException)) {
+                        log.e("Search for %s failed: %s", word, e.getMessage());
+                        if (!isStale(generation)) {
+                            DutchHelperApplication.showError("search failed", String.valueOf(e.getMessage()));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * First stage of a search, ran in the background: reading the page from the database.
+     * @return The page, or nothing if the word doesn't exist
+     */
+    private Optional<IWiktionaryPage> lookup(String word, long generation, long queuedTime) {
+        checkStale(generation);
+        long startTime = System.nanoTime();
+        if (log.isDebugEnabled()) {
+            log.d("Search for %s waited %dms for a thread", word,
+                    TimeUnit.NANOSECONDS.toMillis(startTime - queuedTime));
+        }
+
         IWiktionaryPage page = WiktionaryHelper.get().getPageForWord(word);
+        if (log.isDebugEnabled()) {
+            log.d("Reading page %s took %dms", word, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+        return Optional.ofNullable(page);
+    }
+
+    /**
+     * Second stage of a search, ran in the background: formatting the page and caching it.
+     */
+    private FormattedPage format(String word, IWiktionaryPage page, long generation) {
+        checkStale(generation);
+        log.d("Word found, looking for Dutch entry(s) and formatting them if found...");
+        long startTime = System.nanoTime();
+
+        FormattedPage formatted = DefinitionFormatter.formatPage(page);
+        PageCache.get().put(word, formatted);
+        if (log.isDebugEnabled()) {
+            log.d("Formatting page %s took %dms", word, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+        return formatted;
+    }
+
+    /**
+     * Third stage of a search, ran in the background: reading and formatting the pages of the word's lemmas, if it's
+     * an inflected form. Lemmas that were already searched for come from the page cache.
+     * @return Formatted lemmas that have Dutch entries, empty if the word isn't a known form of anything
+     */
+    private List<FormattedPage> findLemmas(String word, long generation) {
+        List<String> lemmas = InflectionIndex.get().getLemmas(word);
+        if (lemmas.isEmpty()) {
+            return Collections.emptyList();
+        }
+        log.d("%s is a form of %s", word, lemmas);
+
+        List<FormattedPage> result = new ArrayList<>(lemmas.size());
+        for (String lemma : lemmas) {
+            checkStale(generation);
+            FormattedPage formatted = PageCache.get().getIfPresent(lemma);
+            if (formatted == null) {
+                IWiktionaryPage page = WiktionaryHelper.get().getPageForWord(lemma);
+                if (page == null) {
+                    log.d("Lemma %s of %s has no page", lemma, word);
+                    continue;
+                }
+                formatted = format(lemma, page, generation);
+            }
+            if (formatted.isDutch()) {
+                result.add(formatted);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The word's lemmas from the page cache, or null if any of them isn't cached
+     */
+    private List<FormattedPage> getCachedLemmas(String word) {
+        List<String> lemmas = InflectionIndex.get().getLemmas(word);
+        List<FormattedPage> result = new ArrayList<>(lemmas.size());
+        for (String lemma : lemmas) {
+            FormattedPage formatted = PageCache.get().getIfPresent(lemma);
+            if (formatted == null) {
+                return null;
+            }
+            if (formatted.isDutch()) {
+                result.add(formatted);
+            }
+        }
+        return result;
+    }
 
-        if (page == null) {
+    /**
+     * Last stage of a search, ran on the FX thread: showing the result.
+     * @param formatted Formatted page, or nothing if the word doesn't exist
+     * @param lemmas Formatted pages of the word's lemmas, shown after the word's own entries
+     */
+    private void publish(String word, long generation, Optional<FormattedPage> formatted, List<FormattedPage> lemmas) {
+        if (isStale(generation)) {
+            log.d("Search for %s is stale, not showing it", word);
+            return;
+        }
+
+        // in case the search waited for the database
+        DutchHelperApplication.showError("");
+
+        // a form with no page of its own is still shown if its lemma was found
+        if (!formatted.isPresent() && lemmas.isEmpty()) {
             log.w("Page wasn't found, meaning word doesn't exist; aborting search");
             DutchHelperApplication.showError( "word not found");
             return;
         }
 
-        log.d("Word found, looking for Dutch entry(s) and formatting them if found...");
+        // the word's own pronunciation, or its lemma's if the word itself has no Dutch entries
+        boolean dutch = formatted.isPresent() && formatted.get().isDutch();
+        updateAudioFile(dutch || lemmas.isEmpty() ? formatted.get() : lemmas.get(0));
 
-        List<String> definitions = DefinitionFormatter.formatPage(page);
+        List<String> definitions = new ArrayList<>();
+        if (dutch) {
+            definitions.addAll(formatted.get().getDefinitions());
+        }
+        for (FormattedPage lemma : lemmas) {
+            definitions.addAll(lemma.getDefinitions());
+        }
 
         // it didn't find a Dutch entry, so tell user that word couldn't be found
         if (definitions.isEmpty()) {
@@ -73,12 +250,15 @@ public class SearchEventHandler implements EventHandler<ActionEvent> {
         }
 
         // changed log statement below to also print how many entries were found
-        log.d("Dutch entr%s found", definitions.size() == 1 ? "y" : "ies (" + definitions.size() + ")");
+        log.d(() -> "Dutch entr" + (definitions.size() == 1 ? "y" : "ies (" + definitions.size() + ")") + " found");
         log.d("Formatted and added definitions to the definitions ListView");
 
         // clear field so if user wants to search for another thing they don't have to delete field on their own
-        DutchHelperApplication.get().wordField.setText("");
-        log.d("Clearing input field");
+        // (unless they already started typing something else while searching)
+        if (word.equals(DutchHelperApplication.get().wordField.getText())) {
+            DutchHelperApplication.get().wordField.setText("");
+            log.d("Clearing input field");
+        }
 
         DutchHelperApplication.get().definitionListView.setItems(FXCollections.observableArrayList(definitions));
         // DutchHelperApplication.get().definitionListView.scrollTo(0);
@@ -86,4 +266,81 @@ public class SearchEventHandler implements EventHandler<ActionEvent> {
         log.i("Search completed successfully");
     }
 
+    /**
+     * Clears whatever the previous search showed, before a new one (a word search or a text analysis) starts.
+     */
+    static void clearResults() {
+        // clear error label before starting
+        DutchHelperApplication.showError("");
+        log.d("Cleared error label");
+
+        // remove all previous definitions before continuing
+        DutchHelperApplication.get().definitionListView.setItems(FXCollections.emptyObservableList());
+        log.d("Cleared definitions ListView");
+
+        // remove any previous audio file
+        DutchHelperApplication.currentAudioFileProperty.set("");
+        log.d("Cleared audio file property");
+
+        // when a definition doesn't have a pronunciation, it disables the button, and this reverses it
+        DutchHelperApplication.get().playAudioBtn.setDisable(false);
+        log.d("Re-enabled play-audio button");
+    }
+
+    /**
+     * Makes any search that's still running stale, and so is the previous word's audio prefetch.
+     * Text analyses (see {@link TextAnalysisHandler}) share the generation, so each kind makes the other stale too.
+     * @return Generation of the new search
+     */
+    static long startSearch() {
+        long generation = currentGeneration.incrementAndGet();
+        if (Constants.AUDIO_PREFETCH) {
+            AudioService.get().cancelPrefetch();
+        }
+        if (currentSearch != null && currentSearch.cancel(true)) {
+            log.d("Cancelled previous search");
+        }
+        return generation;
+    }
+
+    static boolean isStale(long generation) {
+        return generation != currentGeneration.get();
+    }
+
+    /**
+     * Stops a background stage if a newer search started since, so stale searches don't keep the threads busy.
+     */
+    private static void checkStale(long generation) {
+        if (isStale(generation)) {
+            throw new CancellationException("Search is stale");
+        }
+    }
+
+    /**
+     * Updates the audio file property (which also updates the play-audio button) to the page's pronunciation.
+     * If the page has no pronunciation at all, playing audio is disabled.
+     */
+    private void updateAudioFile(FormattedPage formatted) {
+        // pages without Dutch entries never had their pronunciation checked
+        if (!formatted.isDutch()) {
+            return;
+        }
+
+        if (!formatted.hasPronunciation()) {
+            DutchHelperApplication.currentAudioFileProperty.set("");
+            DutchHelperApplication.get().playAudioBtn.setText("No Pronunciation");
+            // also prevent clicking
+            DutchHelperApplication.get().playAudioBtn.setDisable(true);
+            log.d("No pronunciation for %s, disabling playing audio", formatted.getTitle());
+        } else if (!formatted.getAudioFile().isEmpty()) {
+            // we have an audio file; update property, which will also update button and allow playing
+            DutchHelperApplication.currentAudioFileProperty.set(formatted.getAudioFile());
+            log.d("Pronunciation of %s is %s, updating property", formatted.getTitle(), formatted.getAudioFile());
+
+            if (Constants.AUDIO_PREFETCH) {
+                AudioService.get().prefetch(formatted.getAudioFile());
+            }
+        }
+    }
+
 }
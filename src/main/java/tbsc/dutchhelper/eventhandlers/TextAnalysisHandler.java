@@ -0,0 +1,113 @@
+package tbsc.dutchhelper.eventhandlers;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import tbsc.dutchhelper.DutchHelperApplication;
+import tbsc.dutchhelper.util.Log;
+import tbsc.dutchhelper.util.wikt.DutchTokenizer;
+import tbsc.dutchhelper.util.wikt.TextAnalyzer;
+import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles searches in text mode, where the word field has a whole text pasted into it instead of a word.
+ * Executed instead of {@link SearchEventHandler} when text mode is on.
+ *
+ * Every word of the text is looked up by {@link TextAnalyzer} on a background thread, and the definitions of each
+ * chunk of words are added to the definitions list as soon as it's done, so the first words show up right away
+ * while the rest of a long text is still being read. Words that weren't found are listed in the error label's tooltip.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class TextAnalysisHandler implements EventHandler<ActionEvent> {
+
+    private static Log log = new Log(TextAnalysisHandler.class);
+
+    private static final ExecutorService ANALYSIS_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Text analysis");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void handle(ActionEvent event) {
+        log.i("Text analysis handler called, beginning analysis");
+        SearchEventHandler.clearResults();
+        // a text has no single pronunciation to play
+        DutchHelperApplication.get().playAudioBtn.setDisable(true);
+
+        // stops the previous search or analysis even if there's nothing to analyze
+        long generation = SearchEventHandler.startSearch();
+
+        String text = DutchHelperApplication.get().wordField.getText();
+        List<String> words = DutchTokenizer.tokenize(text);
+        if (words.isEmpty()) {
+            log.w("User didn't enter any words; aborting analysis");
+            DutchHelperApplication.showError("no words entered");
+            return;
+        }
+        log.i("User entered a text of %d different words", words.size());
+
+        if (!WiktionaryHelper.whenReady().isDone()) {
+            DutchHelperApplication.showError("loading database...");
+        }
+
+        // the list is only added to, so the ListView keeps showing only the cells that are visible
+        ObservableList<String> definitions = FXCollections.observableArrayList();
+        DutchHelperApplication.get().definitionListView.setItems(definitions);
+
+        long startTime = System.nanoTime();
+        ANALYSIS_EXECUTOR.execute(() -> {
+            List<String> notFound = new ArrayList<>();
+            try {
+                WiktionaryHelper.whenReady().join();
+                TextAnalyzer.analyze(words, results -> {
+                    List<String> chunkDefinitions = new ArrayList<>();
+                    for (TextAnalyzer.AnalyzedWord result : results) {
+                        if (!result.isFound()) {
+                            notFound.add(result.getWord());
+                        }
+                        chunkDefinitions.addAll(result.getDefinitions());
+                    }
+                    log.d("Analyzed %d words after %dms", results.size(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                    Platform.runLater(() -> {
+                        if (!SearchEventHandler.isStale(generation)) {
+                            definitions.addAll(chunkDefinitions);
+                        }
+                    });
+                }, () -> SearchEventHandler.isStale(generation));
+            } catch (RuntimeException e) {
+                log.e("Analyzing text failed: %s", e.getMessage());
+                if (!SearchEventHandler.isStale(generation)) {
+                    DutchHelperApplication.showError("analysis failed", String.valueOf(e.getMessage()));
+                }
+                return;
+            }
+
+            if (SearchEventHandler.isStale(generation)) {
+                log.d("Text analysis is stale, stopped it");
+                return;
+            }
+            log.i("Analyzed %d words in %dms, %d not found", words.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), notFound.size());
+            if (notFound.isEmpty()) {
+                DutchHelperApplication.showError("");
+            } else {
+                DutchHelperApplication.showError(notFound.size() + " of " + words.size() + " words not found",
+                        String.join(", ", notFound));
+            }
+        });
+    }
+
+}
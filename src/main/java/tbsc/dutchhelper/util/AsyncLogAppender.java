@@ -0,0 +1,166 @@
+package tbsc.dutchhelper.util;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes {@link Log} messages to System.out on a background thread, so logging never waits for the console.
+ * Messages wait in a fixed-size ring buffer; if it's full (the console can't keep up), new debug and info messages
+ * are dropped instead of blocking, and how many were dropped is logged once there's room again. Warnings and errors
+ * are never dropped: when the buffer is full, the calling thread waits until there's room for them, since the last
+ * error before a crash is the one message that mustn't be lost.
+ *
+ * Building the final line (timestamp, level, class name) is also done on the writer thread.
+ * When the program exits, whatever is left in the buffer is written, and messages logged after that are written
+ * directly, so the last lines (e.g. closing the database) aren't lost.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+final class AsyncLogAppender {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd-HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private static final AsyncLogAppender INSTANCE = new AsyncLogAppender(System.out);
+
+    private final PrintStream out;
+    private final BlockingQueue<Record> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed = false;
+
+    // only touched while holding the out lock, the timestamp is only formatted once per second
+    private long lastSecond = -1;
+    private String lastTimestamp = "";
+
+    /**
+     * @param out Where messages are written, System.out except in tests
+     */
+    AsyncLogAppender(PrintStream out) {
+        this.out = out;
+
+        Thread writer = new Thread(this::runWriter, "Log writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    static AsyncLogAppender get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues a message to be written. Only blocks for warnings and errors, while the buffer is full.
+     * @param level Level of the message
+     * @param className Class name to show, or null to not show it
+     * @param message Formatted message
+     */
+    void append(Log.LogLevel level, String className, String message) {
+        Record record = new Record(System.currentTimeMillis(), level.levelprint, className, message);
+        if (closed) {
+            synchronized (out) {
+                write(record);
+                out.flush();
+            }
+        } else if (!buffer.offer(record)) {
+            if (isDroppable(level)) {
+                dropped.incrementAndGet();
+                return;
+            }
+            // queued rather than written here, since the writer thread may already hold older messages
+            try {
+                buffer.put(record);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                synchronized (out) {
+                    write(record);
+                    out.flush();
+                }
+            }
+        }
+    }
+
+    private static boolean isDroppable(Log.LogLevel level) {
+        return level == Log.LogLevel.DEBUG || level == Log.LogLevel.INFO || level == Log.LogLevel.NONE;
+    }
+
+    private void runWriter() {
+        List<Record> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch);
+            writeAll(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes everything that's still buffered, and makes messages logged from now on be written directly.
+     */
+    private void close() {
+        closed = true;
+        List<Record> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        writeAll(rest);
+    }
+
+    private void writeAll(List<Record> records) {
+        synchronized (out) {
+            long droppedCount = dropped.getAndSet(0);
+            if (droppedCount > 0) {
+                write(new Record(System.currentTimeMillis(), Log.LogLevel.WARN.levelprint, null,
+                        droppedCount + " log messages were dropped, the console couldn't keep up"));
+            }
+            for (Record record : records) {
+                write(record);
+            }
+            out.flush();
+        }
+    }
+
+    private void write(Record record) {
+        long second = record.time / 1000;
+        if (second != lastSecond) {
+            lastSecond = second;
+            lastTimestamp = TIME_FORMAT.format(Instant.ofEpochMilli(record.time));
+        }
+
+        StringBuilder line = new StringBuilder(record.prefix.length() + record.message.length() + 48);
+        line.append(record.prefix).append('[').append(lastTimestamp).append("] ");
+        if (record.className != null) {
+            line.append('[').append(record.className).append("] ");
+        }
+        line.append(record.message);
+        out.println(line);
+    }
+
+    private static final class Record {
+
+        final long time;
+        final String prefix;
+        final String className;
+        final String message;
+
+        Record(long time, String prefix, String className, String message) {
+            this.time = time;
+            this.prefix = prefix;
+            this.className = className;
+            this.message = message;
+        }
+
+    }
+
+}
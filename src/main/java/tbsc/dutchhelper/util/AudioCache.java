@@ -0,0 +1,175 @@
+package tbsc.dutchhelper.util;
+
+import org.apache.commons.io.FileUtils;
+import tbsc.dutchhelper.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * On-disk cache of downloaded audio files, so playing a word's pronunciation again doesn't download it again.
+ * Files are named after a hash of their Wiktionary filename, and each one can have two versions:
+ * the downloaded (encoded) file, and the decoded 16-bit PCM that {@link AudioPlayer} writes while playing it the first
+ * time, so replays don't need to decode Vorbis again.
+ *
+ * The directory is {@link Constants#AUDIO_CACHE_PATH} (changed with --audio-cache), and is kept under
+ * {@link Constants#AUDIO_CACHE_MAX_BYTES} by deleting the least recently played files.
+ * Recency is tracked through the files' last modified time.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class AudioCache {
+
+    private static final String ENCODED_EXTENSION = ".audio";
+    private static final String PCM_EXTENSION = ".pcm";
+    private static final String PART_EXTENSION = ".part";
+
+    private static Log log = new Log(AudioCache.class);
+    private static AudioCache instance;
+
+    private final File directory;
+
+    private AudioCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return The audio cache, or null if its directory couldn't be created
+     */
+    public static synchronized AudioCache get() {
+        if (instance == null) {
+            File directory = new File(Constants.AUDIO_CACHE_PATH);
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                log.w("Couldn't create audio cache directory %s, audio won't be cached", directory);
+                return null;
+            }
+            instance = new AudioCache(directory);
+            log.d("Using audio cache in %s", directory);
+        }
+        return instance;
+    }
+
+    /**
+     * @param filename Wiktionary filename of the audio file
+     * @return Whether the file can be played without downloading it
+     */
+    public boolean contains(String filename) {
+        return getPcmFile(filename).isFile() || getEncodedFile(filename).isFile();
+    }
+
+    /**
+     * @return Where the file is (or will be) stored as it was downloaded
+     */
+    public File getEncodedFile(String filename) {
+        return new File(directory, hash(filename) + ENCODED_EXTENSION);
+    }
+
+    /**
+     * @return Where the file is (or will be) stored decoded to PCM, see {@link AudioPlayer} for the format
+     */
+    public File getPcmFile(String filename) {
+        return new File(directory, hash(filename) + PCM_EXTENSION);
+    }
+
+    /**
+     * @return Temporary file to write into before moving it to the given file with {@link #commit(File, File)}
+     */
+    public File getPartFile(File file) {
+        return new File(file.getPath() + PART_EXTENSION);
+    }
+
+    /**
+     * Downloads the audio file into the cache.
+     * @param filename Wiktionary filename
+     * @param url Direct URL to the audio file
+     */
+    public void download(String filename, String url) throws IOException {
+        File file = getEncodedFile(filename);
+        // unique, since a prefetch and a play can download the same file at the same time
+        File part = File.createTempFile(file.getName(), PART_EXTENSION, directory);
+
+        long startTime = System.currentTimeMillis();
+        try {
+            FileUtils.copyURLToFile(new URL(url), part, 3000, 10000);
+        } catch (IOException e) {
+            if (!part.delete()) {
+                log.w("Couldn't delete %s", part);
+            }
+            throw e;
+        }
+        log.d("Downloading %s took %dms", filename, System.currentTimeMillis() - startTime);
+
+        commit(part, file);
+    }
+
+    /**
+     * Moves a fully written part file into place, so a half-written file is never played,
+     * and then makes room for it.
+     */
+    public void commit(File part, File file) throws IOException {
+        Files.move(part.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        evict();
+    }
+
+    /**
+     * Marks the file as just played, so it's evicted last.
+     */
+    public void touch(File file) {
+        if (!file.setLastModified(System.currentTimeMillis())) {
+            log.d("Couldn't update last modified time of %s", file);
+        }
+    }
+
+    /**
+     * Deletes least recently played files until the cache is within {@link Constants#AUDIO_CACHE_MAX_BYTES}.
+     */
+    public synchronized void evict() {
+        File[] files = directory.listFiles((dir, name) ->
+                name.endsWith(ENCODED_EXTENSION) || name.endsWith(PCM_EXTENSION));
+        if (files == null) {
+            return;
+        }
+
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length && size > Constants.AUDIO_CACHE_MAX_BYTES; i++) {
+            long length = files[i].length();
+            if (files[i].delete()) {
+                size -= length;
+                log.d("Evicted %s from audio cache", files[i].getName());
+            }
+        }
+    }
+
+    /**
+     * Wiktionary filenames can contain characters that aren't allowed in filenames, so hash them instead.
+     */
+    private static String hash(String filename) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(filename.getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM has to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
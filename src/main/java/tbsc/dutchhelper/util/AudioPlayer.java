@@ -1,50 +1,211 @@
 package tbsc.dutchhelper.util;
 
+import tbsc.dutchhelper.Constants;
+
 import javax.sound.sampled.*;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Helper class for playing audio files, either from a local file or from a URL.
  * Copied directly from DutchHelper-v1.
  *
+ * Cached audio (see {@link AudioCache}) is decoded once and saved as raw PCM, which is then played straight from a
+ * memory-mapped file. The PCM files start with a header: a magic int, the sample rate (float) and the amount of
+ * channels (int), and after it comes 16-bit signed little-endian samples.
+ *
+ * The output line is kept open between clips, and only reopened when a clip has a different format than the previous
+ * one. Playing is synchronized, since there's only one line; stopping a clip early is done through its
+ * {@link Playback} handle, from any thread.
+ *
  * Created on 07/08/2017
  * @author tbsc
  * @since 2.0.0
  */
 public class AudioPlayer {
 
+    private static final int PCM_MAGIC = 0x44485043; // "DHPC"
+    private static final int PCM_HEADER_SIZE = 12;
+
+    private static Log log = new Log(AudioPlayer.class);
+
+    /**
+     * Line reused between clips of the same format. Only touched while holding the class lock.
+     */
+    private static SourceDataLine line;
+
     public static void playURL(String url) throws IOException, UnsupportedAudioFileException, LineUnavailableException {
         play(new URL(url));
     }
 
+    public static void playURL(String url, Playback playback)
+            throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+        play(AudioSystem.getAudioInputStream(new URL(url)), null, playback);
+    }
+
     public static void playFile(String file) throws IOException, UnsupportedAudioFileException, LineUnavailableException {
         play(new File(file));
     }
 
     public static void play(URL url) throws IOException, UnsupportedAudioFileException, LineUnavailableException {
-        play(AudioSystem.getAudioInputStream(url));
+        play(AudioSystem.getAudioInputStream(url), null, new Playback());
     }
 
     public static void play(File file) throws IOException, UnsupportedAudioFileException, LineUnavailableException {
-        play(AudioSystem.getAudioInputStream(file));
+        play(AudioSystem.getAudioInputStream(file), null, new Playback());
     }
 
-    private static void play(AudioInputStream in) throws IOException, LineUnavailableException {
+    /**
+     * Plays an audio file from the cache. It must already be in it (see {@link AudioCache#contains(String)}).
+     * If a decoded version exists it's played directly, otherwise the file is decoded, and (if enabled through
+     * {@link Constants#AUDIO_CACHE_PCM}) the decoded audio is saved while playing.
+     * @param cache Audio cache
+     * @param filename Wiktionary filename of the audio file
+     * @param playback Handle for stopping the clip early
+     */
+    public static void playCached(AudioCache cache, String filename, Playback playback)
+            throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+        File pcm = cache.getPcmFile(filename);
+        if (pcm.isFile()) {
+            log.d("Playing decoded %s from cache", filename);
+            cache.touch(pcm);
+            playPcm(pcm, playback);
+            return;
+        }
+
+        File encoded = cache.getEncodedFile(filename);
+        cache.touch(encoded);
+        if (!Constants.AUDIO_CACHE_PCM) {
+            log.d("Playing %s from cache", filename);
+            play(AudioSystem.getAudioInputStream(encoded), null, playback);
+            return;
+        }
+
+        log.d("Playing %s from cache, saving decoded audio", filename);
+        File part = cache.getPartFile(pcm);
+        boolean complete;
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(encoded);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(part)))) {
+            AudioFormat outFormat = getOutFormat(in.getFormat());
+            out.writeInt(PCM_MAGIC);
+            out.writeFloat(outFormat.getSampleRate());
+            out.writeInt(outFormat.getChannels());
+
+            complete = play(in, out, playback);
+        } catch (Exception e) {
+            // don't leave a half-written file behind
+            deletePart(part);
+            throw e;
+        }
+
+        // a clip that was stopped early wasn't fully decoded
+        if (complete) {
+            cache.commit(part, pcm);
+        } else {
+            deletePart(part);
+        }
+    }
+
+    /**
+     * Closes the output line, if one is open.
+     */
+    public static synchronized void closeLine() {
+        if (line != null) {
+            line.close();
+            line = null;
+            log.d("Closed audio line");
+        }
+    }
+
+    /**
+     * Plays decoded audio from the cache, memory-mapping the file instead of reading it through streams.
+     */
+    private static synchronized void playPcm(File file, Playback playback) throws IOException, LineUnavailableException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < PCM_HEADER_SIZE || buffer.getInt() != PCM_MAGIC) {
+                throw new IOException("Invalid cached audio file " + file);
+            }
+            float rate = buffer.getFloat();
+            int channels = buffer.getInt();
+            AudioFormat format = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED,
+                    rate, 16, channels, channels * 2, rate, false);
+
+            SourceDataLine line = openLine(format, playback);
+            // the line only accepts arrays, so this is the only copy being made
+            final byte[] chunk = new byte[65536];
+            while (buffer.hasRemaining() && !playback.isStopped()) {
+                int n = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, n);
+                line.write(chunk, 0, n);
+            }
+            finish(line, playback);
+        }
+    }
+
+    /**
+     * @param in Audio to play
+     * @param copy If not null, the decoded audio is also written to it
+     * @return Whether the clip was played to the end
+     */
+    private static synchronized boolean play(AudioInputStream in, DataOutputStream copy, Playback playback)
+            throws IOException, LineUnavailableException {
         final AudioFormat outFormat = getOutFormat(in.getFormat());
-        final DataLine.Info info = new DataLine.Info(SourceDataLine.class, outFormat);
-
-        try (final SourceDataLine line = (SourceDataLine) AudioSystem.getLine(info)) {
-            if (line != null) {
-                line.open(outFormat);
-                line.start();
-                AudioInputStream inputMystream = AudioSystem.getAudioInputStream(outFormat, in);
-                stream(inputMystream, line);
-                line.drain();
-                line.stop();
+
+        SourceDataLine line = openLine(outFormat, playback);
+        AudioInputStream inputMystream = AudioSystem.getAudioInputStream(outFormat, in);
+        stream(inputMystream, line, copy, playback);
+        return finish(line, playback);
+    }
+
+    /**
+     * Returns an open and started line for the format, reusing the previous clip's line if it has the same format.
+     */
+    private static SourceDataLine openLine(AudioFormat format, Playback playback) throws LineUnavailableException {
+        if (line != null && !(line.getFormat().matches(format) && format.matches(line.getFormat()))) {
+            log.d("Audio format changed, reopening line");
+            closeLine();
+        }
+
+        if (line == null) {
+            final DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
+            SourceDataLine newLine = (SourceDataLine) AudioSystem.getLine(info);
+            try {
+                newLine.open(format);
+            } catch (LineUnavailableException | RuntimeException e) {
+                // otherwise the line stays reserved, and the next clip would try to reuse it
+                newLine.close();
+                throw e;
             }
+            line = newLine;
+        }
+
+        line.start();
+        playback.line = line;
+        return line;
+    }
+
+    /**
+     * Lets the clip finish playing, or discards what's left of it if it was stopped.
+     * @return Whether the clip was played to the end
+     */
+    private static boolean finish(SourceDataLine line, Playback playback) {
+        playback.line = null;
+        if (playback.isStopped()) {
+            line.stop();
+            line.flush();
+            return false;
         }
+        line.drain();
+        line.stop();
+        return true;
     }
 
     private static AudioFormat getOutFormat(AudioFormat inFormat) {
@@ -53,11 +214,47 @@ public class AudioPlayer {
         return new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, rate, 16, ch, ch * 2, rate, false);
     }
 
-    private static void stream(AudioInputStream in, SourceDataLine line) throws IOException {
+    private static void stream(AudioInputStream in, SourceDataLine line, DataOutputStream copy, Playback playback)
+            throws IOException {
         final byte[] buffer = new byte[65536];
-        for (int n = 0; n != -1; n = in.read(buffer, 0, buffer.length)) {
+        for (int n = 0; n != -1 && !playback.isStopped(); n = in.read(buffer, 0, buffer.length)) {
             line.write(buffer, 0, n);
+            if (copy != null) {
+                copy.write(buffer, 0, n);
+            }
         }
     }
 
+    private static void deletePart(File part) {
+        if (part.exists() && !part.delete()) {
+            log.w("Couldn't delete %s", part);
+        }
+    }
+
+    /**
+     * Handle of a single clip being played, that lets another thread stop it.
+     */
+    public static final class Playback {
+
+        private volatile boolean stopped = false;
+        private volatile SourceDataLine line;
+
+        /**
+         * Stops the clip as soon as possible. Does nothing if it already finished.
+         */
+        public void stop() {
+            stopped = true;
+            SourceDataLine current = line;
+            if (current != null) {
+                // a stopped line makes a blocked write return right away
+                current.stop();
+            }
+        }
+
+        public boolean isStopped() {
+            return stopped;
+        }
+
+    }
+
 }
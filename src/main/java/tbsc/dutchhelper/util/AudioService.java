@@ -0,0 +1,281 @@
+package tbsc.dutchhelper.util;
+
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.wikt.WiktionaryHelper;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long-lived service that plays pronunciations, replacing a new thread per click.
+ *
+ * Playing a file has two stages, each with its own thread: preparing it (resolving its URL and downloading it into
+ * {@link AudioCache}), and playing it. That way the next clip is prepared while the previous one is still playing,
+ * and only once it's ready the previous clip is stopped and the new one starts.
+ * Prepared clips wait for the player in a small bounded queue; only the most recently requested clip is ever played,
+ * so older ones are skipped (or dropped, if the queue is full).
+ *
+ * If {@link Constants#AUDIO_PREFETCH} is enabled, a search that finds a pronunciation also prefetches it
+ * (see {@link #prefetch(String)}) on a low priority thread, so pressing play right after doesn't wait for the network.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class AudioService {
+
+    /**
+     * How many prepared clips can wait for the player thread.
+     */
+    private static final int QUEUE_SIZE = 2;
+
+    private static final AudioService INSTANCE = new AudioService();
+    private static Log log = new Log(AudioService.class);
+
+    private final ExecutorService preparer = Executors.newSingleThreadExecutor(r -> newThread(r, "Audio preparer"));
+    private final BlockingQueue<Request> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+    private final AtomicLong currentRequest = new AtomicLong();
+    private volatile AudioPlayer.Playback currentPlayback;
+
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = newThread(r, "Audio prefetcher");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicLong currentPrefetch = new AtomicLong();
+    private volatile Prefetch lastPrefetch;
+
+    private AudioService() {
+        newThread(this::runPlayer, "Audio player").start();
+        Runtime.getRuntime().addShutdownHook(new Thread(AudioPlayer::closeLine));
+    }
+
+    public static AudioService get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Prepares and plays the audio file, stopping whatever is playing once this one is ready.
+     * @param filename Wiktionary filename of the audio file
+     * @return Future that completes when the clip finished playing (or was skipped or stopped for a newer one).
+     *         If the file's URL couldn't be found it completes with an {@link AudioNotFoundException}.
+     */
+    public CompletableFuture<Void> play(String filename) {
+        Request request = new Request(filename, currentRequest.incrementAndGet());
+        preparer.execute(() -> prepare(request));
+        return request.done;
+    }
+
+    /**
+     * Stops the clip that's currently playing, if there is one.
+     */
+    public void stop() {
+        AudioPlayer.Playback playback = currentPlayback;
+        if (playback != null) {
+            playback.stop();
+        }
+    }
+
+    /**
+     * Resolves the file's URL and downloads it in the background, so that playing it later is immediate.
+     * Any earlier prefetch that didn't finish yet is abandoned.
+     * @param filename Wiktionary filename of the audio file
+     */
+    public void prefetch(String filename) {
+        long id = currentPrefetch.incrementAndGet();
+        lastPrefetch = new Prefetch(filename,
+                CompletableFuture.runAsync(() -> runPrefetch(filename, id), prefetcher));
+    }
+
+    /**
+     * Abandons the current prefetch (if any), e.g. because the user searched for another word.
+     * A download that already started is finished, but nothing after it is done.
+     */
+    public void cancelPrefetch() {
+        currentPrefetch.incrementAndGet();
+    }
+
+    /**
+     * Runs on the prefetch thread. Failing is fine, playing the file will just try again.
+     */
+    private void runPrefetch(String filename, long id) {
+        try {
+            AudioCache cache = AudioCache.get();
+            if (id != currentPrefetch.get() || (cache != null && cache.contains(filename))) {
+                return;
+            }
+
+            // even without an audio cache, this fills the audio URL cache
+            long startTime = System.nanoTime();
+            String url = WiktionaryHelper.getAudioURL(filename);
+            if (url.isEmpty() || cache == null || id != currentPrefetch.get()) {
+                return;
+            }
+
+            cache.download(filename, url);
+            log.d("Prefetched %s in %dms", filename, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        } catch (IOException e) {
+            log.d("Prefetching %s failed: %s", filename, e.getMessage());
+        }
+    }
+
+    /**
+     * Makes sure the file can be played, then stops the current clip and queues this one.
+     * Runs on the preparer thread.
+     */
+    private void prepare(Request request) {
+        if (isStale(request)) {
+            skip(request);
+            return;
+        }
+
+        // if this file is being prefetched, wait for that instead of downloading it a second time
+        Prefetch prefetch = lastPrefetch;
+        if (prefetch != null && prefetch.filename.equals(request.filename)) {
+            try {
+                prefetch.done.join();
+            } catch (CompletionException | CancellationException e) {
+                log.d("Prefetch of %s failed, fetching it now", request.filename);
+            }
+        }
+
+        try {
+            AudioCache cache = AudioCache.get();
+
+            // cached audio doesn't need its URL at all
+            if (cache == null || !cache.contains(request.filename)) {
+                String url = WiktionaryHelper.getAudioURL(request.filename);
+
+                // getAudioURL never returns null so this is safe
+                if (url.isEmpty()) {
+                    throw new AudioNotFoundException(request.filename);
+                }
+                log.d("Fetched audio file URL: %s", url);
+
+                if (cache == null) {
+                    // nowhere to download it to, so it will be streamed
+                    request.url = url;
+                } else {
+                    cache.download(request.filename, url);
+                    log.d("Downloaded audio file into cache");
+                }
+            }
+        } catch (IOException e) {
+            request.done.completeExceptionally(e);
+            return;
+        }
+
+        log.d("Preparing %s took %dms", request.filename,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.startTime));
+
+        // pre-empt the previous clip, but only if this one is still wanted
+        if (!isStale(request)) {
+            stop();
+        }
+
+        while (!queue.offer(request)) {
+            Request dropped = queue.poll();
+            if (dropped != null) {
+                skip(dropped);
+            }
+        }
+    }
+
+    /**
+     * Plays queued clips, one at a time. Runs on the player thread for as long as the program runs.
+     */
+    private void runPlayer() {
+        while (true) {
+            Request request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (isStale(request)) {
+                skip(request);
+                continue;
+            }
+
+            AudioPlayer.Playback playback = new AudioPlayer.Playback();
+            currentPlayback = playback;
+            try {
+                if (request.url.isEmpty()) {
+                    AudioPlayer.playCached(AudioCache.get(), request.filename, playback);
+                } else {
+                    AudioPlayer.playURL(request.url, playback);
+                }
+                log.d(playback.isStopped() ? "Audio playback of %s stopped early" : "Audio playback of %s done",
+                        request.filename);
+                request.done.complete(null);
+            } catch (Exception e) {
+                request.done.completeExceptionally(e);
+            } finally {
+                currentPlayback = null;
+            }
+        }
+    }
+
+    private boolean isStale(Request request) {
+        return request.id != currentRequest.get();
+    }
+
+    private static void skip(Request request) {
+        log.d("Skipping %s, a newer clip was requested", request.filename);
+        request.done.complete(null);
+    }
+
+    private static Thread newThread(Runnable r, String name) {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class Request {
+
+        final String filename;
+        final long id;
+        final long startTime = System.nanoTime();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        /**
+         * Set only if the file has to be streamed instead of played from the cache.
+         */
+        volatile String url = "";
+
+        Request(String filename, long id) {
+            this.filename = filename;
+            this.id = id;
+        }
+
+    }
+
+    private static final class Prefetch {
+
+        final String filename;
+        final CompletableFuture<Void> done;
+
+        Prefetch(String filename, CompletableFuture<Void> done) {
+            this.filename = filename;
+            this.done = done;
+        }
+
+    }
+
+    /**
+     * Thrown when an audio file's URL couldn't be found.
+     */
+    public static class AudioNotFoundException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        public AudioNotFoundException(String filename) {
+            super("audio file URL of " + filename + " wasn't found");
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package tbsc.dutchhelper.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count-Min sketch of how often keys were seen, in a fixed amount of memory however many distinct keys there are.
+ * Each key has a counter in each of {@value #DEPTH} rows, picked by a different hash per row, and its frequency is the
+ * smallest of them; keys that share a counter can only make each other look more frequent, never less.
+ *
+ * Counters are 4 bits, so a frequency is at most {@value #MAX_COUNT}, 16 of them packed into a long. That's enough to
+ * tell often used keys from rarely used ones, which is all it's for.
+ * Once the sketch was incremented 10 times its width, every counter is halved, so keys that were frequent a long time
+ * ago but not lately fade out.
+ *
+ * Not thread-safe.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class FrequencySketch {
+
+    public static final int MAX_COUNT = 15;
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    // clears the bit each counter gets from its neighbour when the whole long is shifted right
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final int width;
+    private final long[] table;
+    private final int sampleSize;
+    private int additions = 0;
+
+    /**
+     * @param width Counters per row, rounded up to a power of two, at least 16; about the amount of distinct keys
+     *              whose frequencies should be told apart
+     */
+    public FrequencySketch(int width) {
+        this.width = Math.max(Integer.highestOneBit(Math.max(width, 16) - 1) << 1, 16);
+        table = new long[this.width * DEPTH / 16];
+        sampleSize = 10 * this.width;
+    }
+
+    /**
+     * Counts one more occurrence of the key, halving every counter if it's time to.
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            added |= incrementAt(indexOf(hash, row));
+        }
+        if (added && ++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    /**
+     * @return How often the key was seen, as of the last halving; between 0 and {@value #MAX_COUNT}
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, countAt(indexOf(hash, row)));
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves every counter, so older occurrences count for less than the ones that come after.
+     */
+    public void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    /**
+     * @return Counters per row
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(additions);
+        for (long counters : table) {
+            out.writeLong(counters);
+        }
+    }
+
+    /**
+     * Reads a sketch written with {@link #writeTo(DataOutput)}.
+     * @throws IOException If reading fails, or what's read isn't a sketch
+     */
+    public static FrequencySketch readFrom(DataInput in) throws IOException {
+        int width = in.readInt();
+        if (width < 16 || Integer.bitCount(width) != 1 || width > (1 << 24)) {
+            throw new IOException("Invalid sketch width " + width);
+        }
+        FrequencySketch sketch = new FrequencySketch(width);
+        sketch.additions = in.readInt();
+        for (int i = 0; i < sketch.table.length; i++) {
+            sketch.table[i] = in.readLong();
+        }
+        return sketch;
+    }
+
+    /**
+     * @return Index of the key's counter in the row, counting from the first row's first counter
+     */
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * width + ((int) h & (width - 1));
+    }
+
+    private boolean incrementAt(int index) {
+        int shift = (index & 15) << 2;
+        long mask = 0xfL << shift;
+        int slot = index >>> 4;
+        if ((table[slot] & mask) == mask) {
+            return false;
+        }
+        table[slot] += 1L << shift;
+        return true;
+    }
+
+    private int countAt(int index) {
+        return (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & 0xfL);
+    }
+
+    /**
+     * Mixes the bits of a hash code, since lots of them (like strings') differ mostly in the lower bits.
+     */
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        hash *= 0xac4c1b51;
+        hash ^= hash >>> 15;
+        return hash;
+    }
+
+}
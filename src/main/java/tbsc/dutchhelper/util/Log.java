@@ -1,12 +1,18 @@
 package tbsc.dutchhelper.util;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 /**
  * Copied directly from DutchHelper-v1, with changes to work with the debug modes system.
  * Logging requires having an instance of this class to enable logging the caller, if enabled through debug.
  *
+ * Messages are only formatted if they'll actually be printed, and printing is done on a background thread by
+ * {@link AsyncLogAppender}, so logging never waits for the console.
+ * Debug messages whose arguments are expensive to compute should use {@link #d(Supplier)} (or check
+ * {@link #isDebugEnabled()}), so the arguments aren't computed when debug logging is off.
+ * Debug messages with up to three arguments don't allocate anything when debug logging is off, as long as the
+ * arguments aren't primitives.
+ *
  * Created on 07/08/2017
  * @author tbsc
  * @since 2.0.0
@@ -75,21 +81,67 @@ public class Log {
      * Only prints when debug mode is on, either by adding "-d" or "--debug=log" to the arguments
      */
     public void d(Object print, Object... format) {
-        if (DebugHelper.isModeActive(DebugHelper.Modes.LOG)) {
+        if (isDebugEnabled()) {
             log(LogLevel.DEBUG, print, format);
         }
     }
 
+    /*
+     * Same as d(Object, Object...), for up to three arguments, so no varargs array is allocated when debug logging is
+     * off. Primitive arguments are still boxed by the caller, so calls with those on hot paths check
+     * isDebugEnabled() first.
+     */
+
+    public void d(String print) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, print);
+        }
+    }
+
+    public void d(String print, Object arg) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, print, arg);
+        }
+    }
+
+    public void d(String print, Object arg1, Object arg2) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, print, arg1, arg2);
+        }
+    }
+
+    public void d(String print, Object arg1, Object arg2, Object arg3) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, print, arg1, arg2, arg3);
+        }
+    }
+
+    /**
+     * Same as {@link #d(Object, Object...)}, but the message is only built if debug logging is on.
+     */
+    public void d(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            log(LogLevel.DEBUG, message.get());
+        }
+    }
+
+    /**
+     * @return Whether debug messages are printed
+     */
+    public boolean isDebugEnabled() {
+        return DebugHelper.isModeActive(DebugHelper.Modes.LOG);
+    }
+
     public void print(Object print, Object... format) {
         log(LogLevel.NONE, print, format);
     }
 
     private void log(LogLevel loglevel, Object print, Object... format) {
-        System.out.println(
-                loglevel.levelprint // [loglevel]
-                + "[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("uuuu-MM-dd-HH:mm:ss")) + "] " // [time]
-                + (DebugHelper.isModeActive(DebugHelper.Modes.LOG_CALLER) ? "[" + className + "] " : "") // only if active
-                + String.format(print.toString(), format)); // log message
+        // without arguments there's nothing to format (and a stray % in the message can't break it)
+        String message = format.length == 0 ? String.valueOf(print) : String.format(print.toString(), format);
+        AsyncLogAppender.get().append(loglevel, // [loglevel]
+                DebugHelper.isModeActive(DebugHelper.Modes.LOG_CALLER) ? className : null, // only if active
+                message); // log message, the time is added when it's printed
     }
 
 }
@@ -0,0 +1,90 @@
+package tbsc.dutchhelper.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects how long each part of startup took, and logs all of them together once the window was shown and the
+ * database is ready (whichever happens last), instead of a separate log line per part.
+ * The database is opened while the window is being set up, so the parts overlap, and don't add up to the total.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class StartupTimer {
+
+    public enum Phase {
+        JVM_START("JVM start"),
+        ARGUMENT_PARSING("argument parsing"),
+        DATABASE_OPEN("database open"),
+        CACHE_WARM("cache warm"),
+        PAGE_PRELOAD("page preload"),
+        FIRST_FRAME("first frame");
+
+        final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+    }
+
+    private static Log log = new Log(StartupTimer.class);
+
+    private static final Map<Phase, Long> durations = new EnumMap<>(Phase.class);
+    private static boolean windowShown = false;
+    private static boolean databaseReady = false;
+    private static boolean reported = false;
+
+    /**
+     * Records how long the JVM took to start until now (the start of main).
+     */
+    public static void recordJvmStart() {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        record(Phase.JVM_START, TimeUnit.MILLISECONDS.toNanos(uptime));
+    }
+
+    /**
+     * @param phase Part of startup
+     * @param nanos How long it took
+     */
+    public static synchronized void record(Phase phase, long nanos) {
+        durations.put(phase, nanos);
+    }
+
+    /**
+     * Called once the window is shown (after recording {@link Phase#FIRST_FRAME}).
+     */
+    public static synchronized void windowShown() {
+        windowShown = true;
+        reportIfDone();
+    }
+
+    /**
+     * Called once the database is ready to be used, or failed opening.
+     */
+    public static synchronized void databaseReady() {
+        databaseReady = true;
+        reportIfDone();
+    }
+
+    private static void reportIfDone() {
+        if (reported || !windowShown || !databaseReady) {
+            return;
+        }
+        reported = true;
+
+        StringBuilder breakdown = new StringBuilder();
+        for (Map.Entry<Phase, Long> entry : durations.entrySet()) {
+            if (breakdown.length() > 0) {
+                breakdown.append(", ");
+            }
+            breakdown.append(entry.getKey().description).append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+        }
+        log.i("Startup took %dms (%s)", ManagementFactory.getRuntimeMXBean().getUptime(), breakdown);
+    }
+
+}
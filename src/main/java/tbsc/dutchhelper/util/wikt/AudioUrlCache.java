@@ -0,0 +1,158 @@
+package tbsc.dutchhelper.util.wikt;
+
+import com.sleepycat.bind.tuple.StringBinding;
+import com.sleepycat.bind.tuple.TupleInput;
+import com.sleepycat.bind.tuple.TupleOutput;
+import com.sleepycat.je.*;
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.Log;
+
+import java.io.File;
+
+/**
+ * Persistent cache of audio filename to direct audio file URL, so {@link WiktionaryHelper#getAudioURL(String)}
+ * only has to fetch and parse the file's wiki page once.
+ * Stored in a small Berkeley DB JE environment next to the Wiktionary database (same directory name, with
+ * "-audiourls" appended), because JE is already used for the Wiktionary database.
+ *
+ * Files whose URL couldn't be found are cached too (as an empty URL), for a shorter time.
+ * Entries expire after {@link Constants#AUDIO_URL_TTL} (or {@link Constants#AUDIO_URL_NEGATIVE_TTL} for missing
+ * files), in case Wikimedia moves the file.
+ *
+ * If the cache can't be opened, everything still works, just without caching.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class AudioUrlCache {
+
+    private static Log log = new Log(AudioUrlCache.class);
+    private static AudioUrlCache instance;
+    private static boolean openFailed = false;
+
+    private final Environment env;
+    private final Database db;
+
+    private AudioUrlCache(Environment env, Database db) {
+        this.env = env;
+        this.db = db;
+    }
+
+    /**
+     * Opens the cache if it isn't open yet.
+     * @return The cache, or null if it couldn't be opened
+     */
+    public static synchronized AudioUrlCache get() {
+        // don't retry opening on every play if it already failed once
+        if (instance == null && !openFailed) {
+            instance = open(getDirectory());
+            openFailed = instance == null;
+        }
+        return instance;
+    }
+
+    /**
+     * @return Directory of the cache, next to the Wiktionary database
+     */
+    public static File getDirectory() {
+        File database = new File(Constants.DATABASE_PATH).getAbsoluteFile();
+        return new File(database.getParentFile(), database.getName() + "-audiourls");
+    }
+
+    private static AudioUrlCache open(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.w("Couldn't create audio URL cache directory %s, audio URLs won't be cached", directory);
+            return null;
+        }
+
+        try {
+            EnvironmentConfig envConfig = new EnvironmentConfig();
+            envConfig.setAllowCreate(true);
+            // it's a tiny database, no need for JE's default cache size
+            envConfig.setCacheSize(1024 * 1024);
+            Environment env = new Environment(directory, envConfig);
+
+            DatabaseConfig dbConfig = new DatabaseConfig();
+            dbConfig.setAllowCreate(true);
+            Database db = env.openDatabase(null, "audioUrls", dbConfig);
+
+            // counting walks the whole database, so only when it's printed
+            log.d(() -> String.format("Opened audio URL cache in %s (%d entries)", directory, db.count()));
+            return new AudioUrlCache(env, db);
+        } catch (DatabaseException e) {
+            log.w("Couldn't open audio URL cache in %s, audio URLs won't be cached: %s", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param filename Audio filename
+     * @return The cached URL, an empty string if the file is cached as not having a URL,
+     *         or null if it isn't cached (or the entry expired)
+     */
+    public String getURL(String filename) {
+        DatabaseEntry key = new DatabaseEntry();
+        StringBinding.stringToEntry(filename, key);
+        DatabaseEntry value = new DatabaseEntry();
+
+        try {
+            if (db.get(null, key, value, LockMode.READ_UNCOMMITTED) != OperationStatus.SUCCESS) {
+                return null;
+            }
+        } catch (DatabaseException e) {
+            log.w("Reading %s from audio URL cache failed: %s", filename, e.getMessage());
+            return null;
+        }
+
+        TupleInput in = new TupleInput(value.getData(), value.getOffset(), value.getSize());
+        long storedAt = in.readLong();
+        String url = in.readString();
+
+        long ttl = url.isEmpty() ? Constants.AUDIO_URL_NEGATIVE_TTL : Constants.AUDIO_URL_TTL;
+        if (System.currentTimeMillis() - storedAt > ttl) {
+            log.d("Cached audio URL of %s expired", filename);
+            return null;
+        }
+        return url;
+    }
+
+    /**
+     * @param filename Audio filename
+     * @param url Direct URL to the file, or an empty string if it wasn't found
+     */
+    public void putURL(String filename, String url) {
+        DatabaseEntry key = new DatabaseEntry();
+        StringBinding.stringToEntry(filename, key);
+
+        TupleOutput out = new TupleOutput();
+        out.writeLong(System.currentTimeMillis());
+        out.writeString(url);
+        DatabaseEntry value = new DatabaseEntry(out.getBufferBytes(), 0, out.getBufferLength());
+
+        try {
+            db.put(null, key, value);
+        } catch (DatabaseException e) {
+            log.w("Writing %s to audio URL cache failed: %s", filename, e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the cache if it was opened. Called by {@link WiktionaryHelper#close()}.
+     */
+    public static synchronized void close() {
+        if (instance == null) {
+            return;
+        }
+
+        try {
+            instance.db.close();
+            instance.env.close();
+            log.d("Closed audio URL cache");
+        } catch (DatabaseException e) {
+            log.w("Closing audio URL cache failed: %s", e.getMessage());
+        }
+        instance = null;
+    }
+
+}
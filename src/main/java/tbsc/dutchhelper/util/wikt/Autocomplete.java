@@ -0,0 +1,304 @@
+package tbsc.dutchhelper.util.wikt;
+
+import tbsc.dutchhelper.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggests Dutch words while the user is typing, from the titles of every page that has a Dutch entry.
+ *
+ * Titles are kept in one array sorted by a folded form of the title: lowercase, without diacritics, and with "ij"
+ * written as "y", so "wyn", "Wijn" and "wijn" are all the same, and "een" finds "één". Words starting with what was
+ * typed are found with a binary search. If there aren't enough of those, words starting with something a few typos
+ * away from what was typed are suggested as well: the sorted array is walked as if it were a trie (keys sharing a
+ * prefix are next to each other), keeping a row of edit distances per prefix and giving up on a prefix as soon as
+ * every distance in its row is too big.
+ *
+ * The list of titles is written by --build-index (see {@link DutchIndex}), so without the Dutch index there are no
+ * suggestions; reading every page of the full database just to list titles would take minutes.
+ * Immutable, so suggestions can be computed on any thread.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class Autocomplete {
+
+    private static Log log = new Log(Autocomplete.class);
+
+    private static final Autocomplete EMPTY = new Autocomplete(new String[0], new String[0]);
+
+    /**
+     * Completed once the titles were read, see {@link #loadAsync()}.
+     */
+    private static final CompletableFuture<Autocomplete> ready = new CompletableFuture<>();
+
+    private final String[] keys;
+    private final String[] titles;
+
+    private Autocomplete(String[] keys, String[] titles) {
+        this.keys = keys;
+        this.titles = titles;
+    }
+
+    /**
+     * @param titles Words that can be suggested, duplicates are ignored
+     */
+    public static Autocomplete of(Collection<String> titles) {
+        List<String[]> pairs = new ArrayList<>(titles.size());
+        for (String title : new HashSet<>(titles)) {
+            String key = fold(title);
+            if (!key.isEmpty()) {
+                pairs.add(new String[]{key, title});
+            }
+        }
+        // titles with the same key (like "een" and "één") are ordered by the title itself
+        pairs.sort(Comparator.<String[], String>comparing(p -> p[0]).thenComparing(p -> p[1]));
+
+        String[] keys = new String[pairs.size()];
+        String[] sortedTitles = new String[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            keys[i] = pairs.get(i)[0];
+            sortedTitles[i] = pairs.get(i)[1];
+        }
+        return new Autocomplete(keys, sortedTitles);
+    }
+
+    /**
+     * Starts reading the titles on a background thread once the database is open.
+     * @return Future that completes once suggestions can be made, the same one {@link #whenReady()} returns
+     */
+    public static CompletableFuture<Autocomplete> loadAsync() {
+        Thread loader = new Thread(() -> {
+            try {
+                WiktionaryHelper.whenReady().join();
+                ready.complete(load());
+            } catch (RuntimeException e) {
+                // there's just no autocomplete then
+                log.w("Loading autocomplete failed: %s", e.getMessage());
+                ready.complete(EMPTY);
+            }
+        }, "Autocomplete loader");
+        loader.setDaemon(true);
+        loader.setPriority(Thread.MIN_PRIORITY);
+        loader.start();
+        return ready;
+    }
+
+    public static CompletableFuture<Autocomplete> whenReady() {
+        return ready;
+    }
+
+    /**
+     * @return The loaded instance, or null if it isn't loaded yet
+     */
+    public static Autocomplete get() {
+        return ready.getNow(null);
+    }
+
+    private static Autocomplete load() {
+        if (!WiktionaryHelper.isUsingDutchIndex()) {
+            log.i("Autocomplete is only available with the Dutch index, build it with --build-index");
+            return EMPTY;
+        }
+
+        File titlesFile = new File(WiktionaryHelper.getDatabasePath(), DutchIndex.TITLES_FILE_NAME);
+        if (!titlesFile.isFile()) {
+            log.i("Dutch index has no list of titles for autocomplete, rebuild it with --build-index");
+            return EMPTY;
+        }
+
+        long beforeTime = System.nanoTime();
+        List<String> titles;
+        try {
+            titles = Files.readAllLines(titlesFile.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.w("Couldn't read %s: %s", titlesFile, e.getMessage());
+            return EMPTY;
+        }
+        Autocomplete autocomplete = of(titles);
+        log.i("Loaded %d words for autocomplete in %dms", autocomplete.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beforeTime));
+        return autocomplete;
+    }
+
+    public int size() {
+        return titles.length;
+    }
+
+    /**
+     * @param input What the user typed so far
+     * @param limit Maximum amount of suggestions
+     * @return Suggestions, best first: words starting with the input, then words starting with something a typo or two
+     * away from it
+     */
+    public List<String> suggest(String input, int limit) {
+        String query = fold(input.trim());
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = lowerBound(query); i < keys.length && result.size() < limit && keys[i].startsWith(query); i++) {
+            result.add(titles[i]);
+        }
+
+        int maxDistance = maxDistance(query.length());
+        if (result.size() < limit && maxDistance > 0) {
+            List<Match> matches = new ArrayList<>();
+            int[] row = new int[query.length() + 1];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = j;
+            }
+            search(query, maxDistance, 0, keys.length, 0, row, null, (char) 0, matches);
+
+            matches.sort(Comparator.comparingInt((Match m) -> m.distance).thenComparingInt(m -> m.from));
+            for (Match match : matches) {
+                for (int i = match.from; i < match.to && result.size() < limit; i++) {
+                    result.add(titles[i]);
+                }
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Lowercase, without diacritics, and with "ij" (and the "ĳ" ligature) written as "y", which is how it's
+     * often typed.
+     */
+    public static String fold(String s) {
+        // NFKD also splits the "ĳ" ligature into "ij"
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFKD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            int last = result.length() - 1;
+            if (c == 'j' && last >= 0 && result.charAt(last) == 'i') {
+                result.setCharAt(last, 'y');
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Short words have too many neighbours for typos to be guessed, and the first few letters are rarely wrong.
+     */
+    private static int maxDistance(int length) {
+        if (length < 3) {
+            return 0;
+        }
+        return length < 6 ? 1 : 2;
+    }
+
+    /**
+     * Finds prefixes within the maximum distance of the query, among keys in [from, to), which all share their first
+     * depth characters. Distances are optimal string alignment: insertions, deletions, substitutions and swapping two
+     * neighbouring characters each count as one.
+     * @param previous Distances between the query's prefixes and the keys' shared prefix
+     * @param beforePrevious Row before previous, null at the root
+     * @param last Last character of the shared prefix
+     */
+    private void search(String query, int maxDistance, int from, int to, int depth,
+                        int[] previous, int[] beforePrevious, char last, List<Match> matches) {
+        int m = query.length();
+        // keys that end at this depth are first, and have no children
+        int i = from;
+        while (i < to && keys[i].length() == depth) {
+            i++;
+        }
+
+        while (i < to) {
+            char c = keys[i].charAt(depth);
+            int end = childEnd(c, depth, i, to);
+
+            int[] row = new int[m + 1];
+            row[0] = previous[0] + 1;
+            int min = row[0];
+            for (int j = 1; j <= m; j++) {
+                char q = query.charAt(j - 1);
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + (q == c ? 0 : 1));
+                if (beforePrevious != null && j > 1 && q == last && query.charAt(j - 2) == c) {
+                    row[j] = Math.min(row[j], beforePrevious[j - 2] + 1);
+                }
+                min = Math.min(min, row[j]);
+            }
+
+            if (row[m] <= maxDistance) {
+                matches.add(new Match(i, end, row[m]));
+            }
+            // a longer prefix can still be closer to the query
+            if (min <= maxDistance && min < row[m]) {
+                search(query, maxDistance, i, end, depth + 1, row, previous, c, matches);
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * @return First index in [from, to) whose key has a character after c at depth
+     */
+    private int childEnd(char c, int depth, int from, int to) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].charAt(depth) <= c) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return First index whose key isn't before the given one
+     */
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Keys in [from, to) start with a prefix this far from the query.
+     */
+    private static final class Match {
+
+        private final int from;
+        private final int to;
+        private final int distance;
+
+        private Match(int from, int to, int distance) {
+            this.from = from;
+            this.to = to;
+            this.distance = distance;
+        }
+
+    }
+
+}
@@ -1,8 +1,7 @@
 package tbsc.dutchhelper.util.wikt;
 
 import de.tudarmstadt.ukp.jwktl.api.*;
-import de.tudarmstadt.ukp.jwktl.api.util.NLInflection;
-import tbsc.dutchhelper.DutchHelperApplication;
+import tbsc.dutchhelper.Constants;
 import tbsc.dutchhelper.util.Log;
 
 import java.util.*;
@@ -21,20 +20,51 @@ public class DefinitionFormatter {
 
     /**
      * Gets all Dutch entries inside the page, formats each using {@link #formatEntry(IWiktionaryEntry)}, and
-     * returns each entry as a string object, for adding to the definition ListView.
+     * also finds which audio file should be played for the page.
+     * Pages with more text than {@link Constants#PARALLEL_FORMAT_MIN_CHARS} are formatted in parallel, see
+     * {@link #formatPage(IWiktionaryPage, boolean)}.
+     * Doesn't touch the GUI, so the result can be cached (see {@link PageCache}).
      * @param page Page to format
-     * @return List containing each definition as a separate string
+     * @return Formatted page, containing each definition as a separate string
      */
-    public static List<String> formatPage(IWiktionaryPage page) {
-        // filter out non-Dutch entries
+    public static FormattedPage formatPage(IWiktionaryPage page) {
         List<IWiktionaryEntry> dutchEntries = WiktionaryHelper.getDutchEntries(page);
+        return formatPage(page, dutchEntries, shouldFormatInParallel(dutchEntries));
+    }
 
-        // format Dutch entries using formatEntry and insert into a list
-        List<String> definitions = new ArrayList<>();
+    /**
+     * Same as {@link #formatPage(IWiktionaryPage)}, but formats in parallel or not regardless of the page's size.
+     * In parallel, the senses of every entry are formatted on the common fork-join pool, and put back into their
+     * entries in order, so the result is exactly the same as formatting sequentially. That's only faster for pages
+     * like "zijn" or "slaan", with many entries and dozens of senses each; for most pages, handing the senses to
+     * other threads takes longer than formatting them.
+     * @param page Page to format
+     * @param parallel Whether senses should be formatted in parallel
+     * @return Formatted page
+     */
+    public static FormattedPage formatPage(IWiktionaryPage page, boolean parallel) {
+        return formatPage(page, WiktionaryHelper.getDutchEntries(page), parallel);
+    }
 
-        // definitions.add(page.getTitle());
-        definitions.addAll(dutchEntries.stream().map(DefinitionFormatter::formatEntry).collect(Collectors.toList()));
-        log.d("Formatted all entries (%s) in page (%s)", definitions.size(), page.getTitle());
+    private static FormattedPage formatPage(IWiktionaryPage page, List<IWiktionaryEntry> dutchEntries,
+                                            boolean parallel) {
+        List<FormattedEntry> entries;
+        if (parallel) {
+            entries = formatEntriesInParallel(dutchEntries);
+        } else {
+            // format Dutch entries using formatEntry and insert into a list
+            entries = new ArrayList<>(dutchEntries.size());
+            for (IWiktionaryEntry entry : dutchEntries) {
+                entries.add(formatEntry(entry));
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.d("Formatted all entries (%s) in page (%s)%s", entries.size(), page.getTitle(),
+                    parallel ? " in parallel" : "");
+        }
+
+        String audioFile = "";
+        boolean hasPronunciation = false;
 
         // only if at least one entry was found, try to see if it has an audio pronunciation
         if (!dutchEntries.isEmpty()) {
@@ -48,13 +78,9 @@ public class DefinitionFormatter {
 
             if (audioFiles.isEmpty()) {
                 // we're left with an empty list, no audio pronunciations
-                DutchHelperApplication.currentAudioFileProperty.set("");
-                DutchHelperApplication.get().playAudioBtn.setText("No Pronunciation");
-                // also prevent clicking
-                DutchHelperApplication.get().playAudioBtn.setDisable(true);
-                log.d("No pronunciation for %s, disabling playing audio", page.getTitle());
+                log.d("No pronunciation for %s", page.getTitle());
             } else {
-                // we have an audio file; update property, which will also update button and allow playing
+                hasPronunciation = true;
                 for (IPronunciation pron : audioFiles) {
                     // skip Belgian pronunciations
                     if (pron.getText().toLowerCase().contains("belgium") || pron.getNote().toLowerCase().contains("belgium")) {
@@ -62,37 +88,42 @@ public class DefinitionFormatter {
                         continue;
                     }
                     // uses first non-belgian pronunciation
-                    DutchHelperApplication.currentAudioFileProperty.set(pron.getText());
-                    log.d("Pronunciation of %s found (%s), updating property", page.getTitle(), pron.getText());
+                    audioFile = pron.getText();
+                    log.d("Pronunciation of %s found (%s)", page.getTitle(), pron.getText());
                     break;
                 }
             }
         }
-        // DutchHelperApplication.get().playAudioBtn.setText("");
 
-        return definitions;
+        return new FormattedPage(page.getTitle(), entries, audioFile, hasPronunciation);
     }
 
-    public static String formatEntry(IWiktionaryEntry entry) {
-        StringBuilder result = new StringBuilder();
-
-        result.append(entry.getWord()).append("\n");
-
-        if (entry.getPartOfSpeech() != null) {
-            result.append("  PoS: ")
-                    .append(entry.getPartOfSpeech().name().replace('_', ' ').toLowerCase())
-                    .append("\n");
+    /**
+     * Collects everything shown about the entry, removing Wiktionary formatting from it.
+     * Turning the result into text is done separately, see {@link tbsc.dutchhelper.util.wikt.render.EntryRenderer}.
+     * @param entry Entry to format
+     * @return Formatted entry
+     */
+    public static FormattedEntry formatEntry(IWiktionaryEntry entry) {
+        List<FormattedSense> senses = new ArrayList<>();
+        for (IWiktionarySense sense : entry.getSenses()) {
+            senses.add(formatSense(sense));
         }
+        return formatEntry(entry, senses);
+    }
 
-        if (entry.getGender() != null) {
-            result.append("  Article: ").append(DutchArticle.fromGender(entry.getGender()).getText())
-                    .append(" (").append(entry.getGender().name().toLowerCase()).append(")\n");
-        }
+    /**
+     * @param senses The entry's senses, already formatted, in order
+     */
+    private static FormattedEntry formatEntry(IWiktionaryEntry entry, List<FormattedSense> senses) {
+        FormattedEntry.Builder result = new FormattedEntry.Builder(entry.getWord())
+                .partOfSpeech(entry.getPartOfSpeech())
+                .gender(entry.getGender());
 
         // TODO: Find way to print plural/diminutive form!
         // when building the database, I didn't think about lines already having a newline
-        // so this reverses the duplicate newlines
-        log.d(entry.getBodyText().replaceAll("\n\n", "\n"));
+        // so this reverses the duplicate newlines; entries from the mapped dictionary have no body text
+        log.d(() -> String.valueOf(entry.getBodyText()).replaceAll("\n\n", "\n"));
 
         if (entry.getPronunciations() != null) {
             for (IPronunciation p : entry.getPronunciations()) {
@@ -100,11 +131,7 @@ public class DefinitionFormatter {
                 if (p.getType() == IPronunciation.PronunciationType.AUDIO) {
                     continue;
                 }
-                result.append("  ")
-                        .append(p.getType() == IPronunciation.PronunciationType.RHYME
-                                ? camelCase(p.getType().name())
-                                : p.getType().name())
-                        .append(": ").append(p.getText()).append("\n");
+                result.pronunciation(p.getType(), p.getText());
             }
         }
 
@@ -113,91 +140,97 @@ public class DefinitionFormatter {
 //            result.append("  Etymology: ").append(entry.getWordEtymology().getText()).append("\n");
 //        }
 
-        // to preserve order, so that glosses are always first
-        Map<SenseType, List<String>> senses = new LinkedHashMap<>();
-        // pre-adding all types, to prevent it from returning null later on
-        for (SenseType type : SenseType.values()) {
-            senses.put(type, new ArrayList<>());
-        }
-
-        for (IWiktionarySense sense : entry.getSenses()) {
-            Map<SenseType, String> senseResult = formatSense(sense);
-
-            senseResult.forEach((key, value) -> {
-                List<String> senseValues = senses.get(key);
-                senseValues.add(value);
-                senses.put(key, senseValues);
-            });
-        }
-
-        for (Map.Entry<SenseType, List<String>> senseEntry : senses.entrySet()) {
-            // skip empty sections
-            if (senseEntry.getValue().isEmpty()) {
-                continue;
-            }
-
-            StringBuilder builder = new StringBuilder();
-            // start sub-entries in the next line
-            builder.append("\n");
-            senseEntry.getValue().forEach(builder::append);
-            result.append("  ").append(camelCase(senseEntry.getKey().name())).append(": ").append(builder.toString());
-            if (!result.toString().endsWith("\n")) {
-                result.append("\n");
-            }
+        for (FormattedSense sense : senses) {
+            result.sense(sense);
         }
 
         if (!entry.getDutchVerbInflections().isEmpty()) {
-            Map<NLInflection, String> infls = entry.getDutchVerbInflections();
-            result.append("  Auxiliary Verb: ").append(infls.get(NLInflection.AUXILIARY_VERB)).append("\n");
-            result.append("  Inflections: \n")
-                    .append("    Present 1st-person: ").append(infls.get(NLInflection.FIRST_PERSON_SINGULAR_PRESENT)).append("\n")
-                    .append("    Present 2nd-person: ").append(infls.get(NLInflection.SECOND_PERSON_SINGULAR_PRESENT)).append("\n")
-                    .append("    Present 3rd-person: ").append(infls.get(NLInflection.THIRD_PERSON_SINGULAR_PRESENT)).append("\n")
-                    .append("    Past 1st-person: ").append(infls.get(NLInflection.FIRST_PERSON_SINGULAR_PAST)).append("\n")
-                    .append("    Past 2nd-person: ").append(infls.get(NLInflection.SECOND_PERSON_SINGULAR_PAST)).append("\n")
-                    .append("    Past 3rd-person: ").append(infls.get(NLInflection.THIRD_PERSON_SINGULAR_PAST)).append("\n")
-                    .append("    Past Plural: ").append(infls.get(NLInflection.PLURAL_PAST)).append("\n")
-                    .append("    Imperative Singular: ").append(infls.get(NLInflection.IMPERATIVE_SINGULAR)).append("\n")
-                    .append("    Present Participle: ").append(infls.get(NLInflection.PRESENT_PARTICIPLE)).append("\n")
-                    .append("    Past Participle: ").append(infls.get(NLInflection.PAST_PARTICIPLE)).append("\n");
+            result.inflections(entry.getDutchVerbInflections());
         }
 
         if (entry.getUsageNotes() != null) {
-            result.append("  Usage: ").append(WiktionaryHelper.removeFormatting(entry.getUsageNotes().getText()));
+            result.usage(WiktionaryHelper.removeFormatting(entry.getUsageNotes().getText()));
         }
 
         for (IWikiString ws : entry.getReferences()) {
-            result.append("  Reference: ").append(ws.getText()).append("\n");
+            result.reference(ws.getText());
         }
 
         if (entry.getEntryLink() != null) {
-            result.append("  Link: ").append(entry.getEntryLinkType())
-                    .append(": ").append(entry.getEntryLink()).append("\n");
+            result.link(entry.getEntryLinkType(), entry.getEntryLink());
         }
 
-        return result.toString();
+        return result.build();
     }
 
-    public static Map<SenseType, String> formatSense(IWiktionarySense sense) {
-        Map<SenseType, String> result = new LinkedHashMap<>();
-        String senseIdx = (sense.getIndex() == 0
-                ? "-"
-                : Integer.toString(sense.getIndex()));
+    /**
+     * Formats the senses of all entries at once, so a page with one huge entry is split up as well as a page with
+     * many small ones, then builds the entries from them on this thread.
+     */
+    private static List<FormattedEntry> formatEntriesInParallel(List<IWiktionaryEntry> dutchEntries) {
+        List<IWiktionarySense> senses = new ArrayList<>();
+        int[] senseCounts = new int[dutchEntries.size()];
+        for (int i = 0; i < dutchEntries.size(); i++) {
+            for (IWiktionarySense sense : dutchEntries.get(i).getSenses()) {
+                senses.add(sense);
+                senseCounts[i]++;
+            }
+        }
+        // an ordered stream collects in encounter order, whichever thread formatted what
+        List<FormattedSense> formatted = senses.parallelStream()
+                .map(DefinitionFormatter::formatSense)
+                .collect(Collectors.toList());
+
+        List<FormattedEntry> entries = new ArrayList<>(dutchEntries.size());
+        int from = 0;
+        for (int i = 0; i < dutchEntries.size(); i++) {
+            int to = from + senseCounts[i];
+            entries.add(formatEntry(dutchEntries.get(i), formatted.subList(from, to)));
+            from = to;
+        }
+        return entries;
+    }
 
+    /**
+     * Whether there's enough text in the entries for formatting it in parallel to pay off. Counting it is much
+     * cheaper than formatting it, and stops once the threshold is reached.
+     */
+    private static boolean shouldFormatInParallel(List<IWiktionaryEntry> entries) {
+        if (Constants.PARALLEL_FORMAT_MIN_CHARS < 0 || Runtime.getRuntime().availableProcessors() < 2) {
+            return false;
+        }
+
+        long chars = 0;
+        for (IWiktionaryEntry entry : entries) {
+            for (IWiktionarySense sense : entry.getSenses()) {
+                if (sense.getGloss() != null) {
+                    chars += sense.getGloss().getText().length();
+                }
+                if (sense.getExamples() != null) {
+                    for (IWiktionaryExample example : sense.getExamples()) {
+                        chars += example.getText().length();
+                    }
+                }
+                if (chars >= Constants.PARALLEL_FORMAT_MIN_CHARS) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static FormattedSense formatSense(IWiktionarySense sense) {
+        String gloss = null;
         if (sense.getGloss() != null) {
-            result.put(SenseType.GLOSSES, "    " + senseIdx + ". "
-                    + WiktionaryHelper.removeFormatting(sense.getGloss().getText())
-                    + "\n");
+            gloss = WiktionaryHelper.removeFormatting(sense.getGloss().getText());
         }
 
+        List<String> examples = new ArrayList<>();
         if (sense.getExamples() != null) {
-            StringBuilder examples = new StringBuilder();
-            examples.append("    ").append(senseIdx).append(":\n");
             for (IWiktionaryExample ws : sense.getExamples()) {
                 // TODO: Look into maybe printing example WITH corresponding gloss
-                examples.append("      ").append(WiktionaryHelper.removeFormatting(ws.getText())).append("\n");
+                examples.add(WiktionaryHelper.removeFormatting(ws.getText()));
             }
-            result.put(SenseType.EXAMPLES, examples.toString());
         }
 
         /*
@@ -229,20 +262,7 @@ public class DefinitionFormatter {
                     .forEach(s -> result.append(s).append("\n"));
         }*/
 
-        return result;
-    }
-
-    enum SenseType {
-        GLOSSES, EXAMPLES, QUOTATIONS, RELATIONS, TRANSLATIONS
-    }
-
-    /**
-     * Capitalizes first letter.
-     * @param s String to work on
-     * @return Same string with first letter capitalized
-     */
-    private static String camelCase(String s) {
-        return Character.toUpperCase(s.charAt(0)) + s.substring(1).toLowerCase();
+        return new FormattedSense(sense.getIndex(), gloss, examples);
     }
 
 }
@@ -0,0 +1,74 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Where pages are read from, behind {@link WiktionaryHelper#get()}: JE ({@link JEWiktionaryEdition}), the mapped
+ * dictionary ({@link MappedWiktionaryEdition}), or memory ({@link MemoryBackend}). Chosen with --backend, so they can
+ * be compared on the same searches, or the same --batch input.
+ *
+ * Only what the app needs from the database is here, so a backend doesn't have to be a whole JWKTL edition. Pages are
+ * still JWKTL pages, so they're formatted the same way whichever backend read them.
+ *
+ * Backends are read from many threads at once, so they have to be thread-safe.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public interface DictionaryBackend {
+
+    /**
+     * @return Short name of the backend, as it's given to --backend
+     */
+    String getName();
+
+    /**
+     * @param word Exact title of the page
+     * @return The page, or null if there's no page with that title
+     */
+    IWiktionaryPage getPageForWord(String word);
+
+    /**
+     * @param word Exact title of the page
+     * @return Dutch entries of the page, see {@link WiktionaryHelper#getDutchEntries(IWiktionaryPage)}; empty if
+     * there's no page with that title
+     */
+    default List<IWiktionaryEntry> getDutchEntries(String word) {
+        IWiktionaryPage page = getPageForWord(word);
+        return page == null ? Collections.emptyList() : WiktionaryHelper.getDutchEntries(page);
+    }
+
+    /**
+     * Reads the pages of many titles at once, for {@link WiktionaryHelper#getPages(Collection)}.
+     * By default each title is looked up on its own, with the titles split over the lookup threads; backends that can
+     * do better in bulk override this.
+     * @param titles Titles to read, distinct and sorted
+     * @return Page of each title, with titles that have none marked as misses, and timings
+     */
+    default PageBatch readPages(String[] titles) {
+        long startTime = System.nanoTime();
+        IWiktionaryPage[] pages = new IWiktionaryPage[titles.length];
+        int threads = WiktionaryHelper.lookupThreads(titles.length);
+        WiktionaryHelper.runSplit(titles.length, threads, i -> pages[i] = getPageForWord(titles[i]));
+        long duration = System.nanoTime() - startTime;
+        return PageBatch.of(titles, pages, threads, 0, duration, duration);
+    }
+
+    /**
+     * Passes on the title of every page, sorted by their UTF-8 bytes, without reading the pages.
+     */
+    void forEachTitle(Consumer<? super String> action);
+
+    /**
+     * Closes the backend; it can't be read from after this.
+     */
+    void close();
+
+}
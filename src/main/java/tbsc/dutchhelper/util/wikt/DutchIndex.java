@@ -0,0 +1,226 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.entry.BerkeleyDBWiktionaryEdition;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.WiktionaryIterator;
+import de.tudarmstadt.ukp.jwktl.parser.WritableBerkeleyDBWiktionaryEdition;
+import tbsc.dutchhelper.util.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A copy of the Wiktionary database with only the Dutch entries left, built once with --build-index and then opened
+ * instead of the full database.
+ *
+ * JWKTL stores a page's entries inside the page itself, so reading a page from the full database deserializes every
+ * entry on it, in every language, only for {@link WiktionaryHelper#getDutchEntries} to throw most of them away; pages
+ * like "die" or "is" have dozens. A page in the index only has its Dutch entries, so nothing else is read.
+ *
+ * Every page is kept, even ones without Dutch entries (they're kept empty), so a word that isn't Dutch is still told
+ * apart from one that isn't in Wiktionary at all. Entries keep the index they had on the full page, so entry and sense
+ * keys from the full database aren't valid in the index; only pages are looked up, so that doesn't matter.
+ *
+ * The index is a normal JWKTL database in {@value #DIRECTORY_NAME} inside the database's directory. Its properties
+ * remember which database it was built from, and if that database was rebuilt since, the index isn't used.
+ * Next to it is a list of the pages that have Dutch entries ({@value #TITLES_FILE_NAME}), which autocomplete reads,
+ * and the lemmas of inflected forms ({@value #INFLECTIONS_FILE_NAME}), which searches read. The Dutch pages are also
+ * written to a {@link MappedWiktionaryEdition} ({@value #MAPPED_FILE_NAME}), which is opened instead of the index
+ * unless --no-mapped is given.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class DutchIndex {
+
+    /**
+     * Directory, inside the database's directory, the index is kept in.
+     */
+    public static final String DIRECTORY_NAME = "dutch-index";
+
+    /**
+     * File in the index with the title of every page that has Dutch entries, one per line, for {@link Autocomplete}.
+     */
+    public static final String TITLES_FILE_NAME = "dutch-titles.txt";
+
+    /**
+     * File in the index that maps inflected forms to their lemmas, for {@link InflectionIndex}.
+     */
+    public static final String INFLECTIONS_FILE_NAME = "dutch-inflections.txt";
+
+    /**
+     * File in the index with every page that has Dutch entries, for {@link MappedWiktionaryEdition}.
+     */
+    public static final String MAPPED_FILE_NAME = "dutch.dict";
+
+    // properties of the full database when the index was built, to tell if it's still the same database
+    private static final String SOURCE_PREFIX = "dutchhelper.source.";
+    private static final String[] SOURCE_PROPERTIES = {"database.creation", "database.pages", "database.entries"};
+
+    private static final int PROGRESS_INTERVAL = 100000;
+
+    private static Log log = new Log(DutchIndex.class);
+
+    private DutchIndex() {
+    }
+
+    /**
+     * @param databasePath Directory of the full database
+     * @return Directory of its index, which doesn't necessarily exist
+     */
+    public static File getPath(File databasePath) {
+        return new File(databasePath, DIRECTORY_NAME);
+    }
+
+    /**
+     * @param databasePath Directory of the full database
+     * @return Whether the database has an index, built from the database as it is now
+     */
+    public static boolean isUpToDate(File databasePath) {
+        File indexProperties = new File(getPath(databasePath), BerkeleyDBWiktionaryEdition.PROPERTY_FILE_NAME);
+        if (!indexProperties.isFile()) {
+            return false;
+        }
+
+        try {
+            Properties source = readProperties(new File(databasePath, BerkeleyDBWiktionaryEdition.PROPERTY_FILE_NAME));
+            Properties index = readProperties(indexProperties);
+            for (String key : SOURCE_PROPERTIES) {
+                if (!Objects.equals(source.getProperty(key), index.getProperty(SOURCE_PREFIX + key))) {
+                    log.w("Dutch index at %s is out of date (%s changed), rebuild it with --build-index",
+                            getPath(databasePath), key);
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            log.w("Couldn't read Dutch index properties: %s", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Builds the index of the database, replacing the old one if there is one.
+     * Reads every page of the database, so it takes a while.
+     * @param databasePath Directory of the full database
+     */
+    public static void build(File databasePath) throws IOException {
+        File indexPath = getPath(databasePath);
+        log.i("Building Dutch index of %s in %s...", databasePath, indexPath);
+        if (!indexPath.isDirectory() && !indexPath.mkdirs()) {
+            throw new IOException("Couldn't create index directory " + indexPath);
+        }
+
+        long startTime = System.nanoTime();
+        long pages = 0;
+        long keptEntries = 0;
+        long droppedEntries = 0;
+
+        // written to last, so an index that wasn't finished isn't used; deleted first for the same reason
+        File indexProperties = new File(indexPath, BerkeleyDBWiktionaryEdition.PROPERTY_FILE_NAME);
+        if (indexProperties.exists() && !indexProperties.delete()) {
+            throw new IOException("Couldn't delete old index properties " + indexProperties);
+        }
+
+        List<String> dutchTitles = new ArrayList<>();
+        InflectionIndex.Builder inflections = new InflectionIndex.Builder();
+        JEWiktionaryEdition source = new JEWiktionaryEdition(databasePath);
+        MappedWiktionaryEdition.Writer mapped = null;
+        try {
+            mapped = new MappedWiktionaryEdition.Writer(indexPath, source.getLanguage());
+            // overwrites whatever was there before
+            WritableBerkeleyDBWiktionaryEdition index = new WritableBerkeleyDBWiktionaryEdition(indexPath, true);
+            try {
+                index.setLanguage(source.getLanguage());
+
+                WiktionaryIterator<IWiktionaryPage> it = source.getAllPages(null, false, false);
+                try {
+                    for (IWiktionaryPage page : it) {
+                        WiktionaryPage stripped = (WiktionaryPage) page;
+                        int before = stripped.getEntryCount();
+                        stripped.entries().removeIf(e -> e.getWordLanguage() != WiktionaryHelper.getNLD());
+                        int after = stripped.getEntryCount();
+
+                        index.savePage(stripped);
+                        pages++;
+                        keptEntries += after;
+                        droppedEntries += before - after;
+                        if (after > 0) {
+                            dutchTitles.add(stripped.getTitle());
+                        }
+                        for (IWiktionaryEntry entry : stripped.getEntries()) {
+                            inflections.add(stripped.getTitle(), entry);
+                        }
+                        mapped.add(stripped);
+                        if (pages % PROGRESS_INTERVAL == 0) {
+                            log.i("Indexed %d pages...", pages);
+                        }
+                    }
+                } finally {
+                    it.close();
+                }
+                index.commit();
+            } finally {
+                index.close();
+            }
+            mapped.write(new File(indexPath, MAPPED_FILE_NAME));
+        } finally {
+            if (mapped != null) {
+                mapped.close();
+            }
+            source.close();
+        }
+
+        Files.write(new File(indexPath, TITLES_FILE_NAME).toPath(), dutchTitles, StandardCharsets.UTF_8);
+        inflections.write(new File(indexPath, INFLECTIONS_FILE_NAME));
+        writeIndexProperties(databasePath, indexProperties, pages, keptEntries);
+        log.i("Built Dutch index in %ds: %d pages (%d with Dutch entries), kept %d entries, dropped %d",
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime),
+                pages, dutchTitles.size(), keptEntries, droppedEntries);
+        log.i("Found lemmas of %d inflected forms", inflections.size());
+        log.i("Wrote %d Dutch pages to %s", mapped.size(), MAPPED_FILE_NAME);
+    }
+
+    /**
+     * JWKTL needs the same properties it writes for its own databases, so the full database's are copied, with the
+     * counts of the index and the source properties added.
+     */
+    private static void writeIndexProperties(File databasePath, File indexProperties, long pages, long entries)
+            throws IOException {
+        Properties source = readProperties(new File(databasePath, BerkeleyDBWiktionaryEdition.PROPERTY_FILE_NAME));
+        Properties index = new Properties();
+        index.putAll(source);
+        for (String key : SOURCE_PROPERTIES) {
+            String value = source.getProperty(key);
+            if (value != null) {
+                index.setProperty(SOURCE_PREFIX + key, value);
+            }
+        }
+        index.setProperty("database.path", indexProperties.getParent());
+        index.setProperty("database.pages", Long.toString(pages));
+        index.setProperty("database.entries", Long.toString(entries));
+        index.remove("database.sense");
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(indexProperties), StandardCharsets.UTF_8)) {
+            index.store(out, "Dutch entries only, built by DutchHelper from " + databasePath);
+        }
+    }
+
+    private static Properties readProperties(File file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+}
@@ -0,0 +1,138 @@
+package tbsc.dutchhelper.util.wikt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits Dutch text into the words that can be looked up, for analyzing a whole text at once (see {@link TextAnalyzer}).
+ *
+ * Words are runs of letters, which can have apostrophes and hyphens inside them, so "auto's", "zo'n" and "zee-egel"
+ * stay one word. An apostrophe before a word is only kept for the short forms that have their own page ("'s", "'t",
+ * "'k"...), otherwise it's a quote. A hyphen at the end of a word ("land- en tuinbouw") is dropped. Curly apostrophes
+ * are read as straight ones, and words with digits in them are skipped.
+ *
+ * Capitalization is kept, since proper nouns are written capitalized on Wiktionary too; {@link #variants(String)}
+ * gives the other ways a word might be written in the dictionary.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class DutchTokenizer {
+
+    /**
+     * Words that are written with an apostrophe in front, without it.
+     */
+    private static final Set<String> CLITICS = new LinkedHashSet<>(Arrays.asList("s", "t", "k", "n", "m", "r", "ns"));
+
+    private static final Locale DUTCH = new Locale("nl");
+
+    private DutchTokenizer() {
+    }
+
+    /**
+     * @param text Text to split, of any length
+     * @return Every word in the text, each only once, in the order they're first in the text
+     */
+    public static List<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        StringBuilder word = new StringBuilder();
+        int length = text.length();
+
+        int i = 0;
+        while (i < length) {
+            char c = normalize(text.charAt(i));
+            if (!isWordChar(c) && !(c == '\'' && isCliticAt(text, i + 1))) {
+                i++;
+                continue;
+            }
+
+            // c starts a word, or is the apostrophe of a clitic
+            word.setLength(0);
+            word.append(c);
+            i++;
+            boolean digits = Character.isDigit(c);
+            while (i < length) {
+                c = normalize(text.charAt(i));
+                if (isWordChar(c)) {
+                    digits |= Character.isDigit(c);
+                } else if (!((c == '\'' || c == '-') && i + 1 < length && Character.isLetter(text.charAt(i + 1)))) {
+                    // apostrophes and hyphens only count between letters
+                    break;
+                }
+                word.append(c);
+                i++;
+            }
+
+            if (!digits) {
+                words.add(word.toString());
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Ways the word might be written in the dictionary, the way it was written first. A capitalized word is tried
+     * lowercase (it might just start a sentence), and a word with hyphens can be looked up part by part if it isn't in
+     * the dictionary as a whole, see {@link #parts(String)}.
+     * @return The word, and the word lowercase if that's different
+     */
+    public static List<String> variants(String word) {
+        String lower = word.toLowerCase(DUTCH);
+        return lower.equals(word) ? Collections.singletonList(word) : Arrays.asList(word, lower);
+    }
+
+    /**
+     * @return The parts of a word with hyphens, or an empty list if it has none
+     */
+    public static List<String> parts(String word) {
+        if (word.indexOf('-') < 0) {
+            return Collections.emptyList();
+        }
+        List<String> parts = new ArrayList<>();
+        for (String part : word.split("-")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+
+    private static boolean isWordChar(char c) {
+        // marks are diacritics of text that isn't normalized, like "e" followed by a combining diaeresis
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    /**
+     * Whether a clitic like "s" or "t" starts at i, and ends there too ("'s avonds", but not "'sorry'").
+     */
+    private static boolean isCliticAt(String text, int i) {
+        int end = i;
+        while (end < text.length() && Character.isLetter(text.charAt(end))) {
+            end++;
+        }
+        return end > i && CLITICS.contains(text.substring(i, end).toLowerCase(DUTCH));
+    }
+
+    /**
+     * Typographic apostrophes, which word processors put in, are the same as straight ones.
+     */
+    private static char normalize(char c) {
+        switch (c) {
+            case '’':
+            case '‘':
+            case 'ʼ':
+            case '`':
+            case '´':
+                return '\'';
+            default:
+                return c;
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IPronunciation;
+import de.tudarmstadt.ukp.jwktl.api.PartOfSpeech;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalGender;
+import de.tudarmstadt.ukp.jwktl.api.util.NLInflection;
+import tbsc.dutchhelper.util.wikt.render.EntryRenderer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Dutch entry, formatted by {@link DefinitionFormatter#formatEntry}: everything that's shown about it, with
+ * Wiktionary formatting already removed, but not yet turned into text.
+ * Turning it into text (or HTML, or JSON) is done by an {@link EntryRenderer}, so the same entry can be shown in
+ * several ways without formatting it again.
+ * Immutable, so it can be cached and shared between threads.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class FormattedEntry {
+
+    private final String word;
+    private final PartOfSpeech partOfSpeech;
+    private final GrammaticalGender gender;
+    private final List<Pronunciation> pronunciations;
+    private final List<FormattedSense> senses;
+    private final Map<NLInflection, String> inflections;
+    private final String usage;
+    private final List<String> references;
+    private final String linkType;
+    private final String link;
+
+    private FormattedEntry(Builder builder) {
+        this.word = builder.word;
+        this.partOfSpeech = builder.partOfSpeech;
+        this.gender = builder.gender;
+        this.pronunciations = unmodifiable(builder.pronunciations);
+        this.senses = unmodifiable(builder.senses);
+        this.inflections = builder.inflections.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(builder.inflections));
+        this.usage = builder.usage;
+        this.references = unmodifiable(builder.references);
+        this.linkType = builder.linkType;
+        this.link = builder.link;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * @return Part of speech, or null if unknown
+     */
+    public PartOfSpeech getPartOfSpeech() {
+        return partOfSpeech;
+    }
+
+    /**
+     * @return Gender, or null if the entry has none (isn't a noun, or unknown)
+     */
+    public GrammaticalGender getGender() {
+        return gender;
+    }
+
+    /**
+     * @return Article matching the gender, {@link DutchArticle#NONE} if there's no gender
+     */
+    public DutchArticle getArticle() {
+        return DutchArticle.fromGender(gender);
+    }
+
+    /**
+     * @return Non-audio pronunciations (IPA, rhymes...), audio ones are in {@link FormattedPage#getAudioFile()}
+     */
+    public List<Pronunciation> getPronunciations() {
+        return pronunciations;
+    }
+
+    public List<FormattedSense> getSenses() {
+        return senses;
+    }
+
+    /**
+     * @return Verb inflections, empty if the entry isn't a verb or has none
+     */
+    public Map<NLInflection, String> getInflections() {
+        return inflections;
+    }
+
+    /**
+     * @return Usage notes, or null if there are none
+     */
+    public String getUsage() {
+        return usage;
+    }
+
+    public List<String> getReferences() {
+        return references;
+    }
+
+    /**
+     * @return Type of {@link #getLink()}, or null if there's no link
+     */
+    public String getLinkType() {
+        return linkType;
+    }
+
+    /**
+     * @return Entry this one links to, or null if there's none
+     */
+    public String getLink() {
+        return link;
+    }
+
+    /**
+     * @return Rough number of bytes this object keeps alive, used to bound {@link PageCache}
+     */
+    long estimateWeight() {
+        long result = 96 + stringWeight(word) + stringWeight(usage) + stringWeight(linkType) + stringWeight(link);
+        for (Pronunciation pronunciation : pronunciations) {
+            result += 24 + stringWeight(pronunciation.getText());
+        }
+        for (FormattedSense sense : senses) {
+            result += sense.estimateWeight() + 8;
+        }
+        for (String value : inflections.values()) {
+            result += stringWeight(value) + 8;
+        }
+        for (String reference : references) {
+            result += stringWeight(reference) + 8;
+        }
+        return result;
+    }
+
+    static long stringWeight(String s) {
+        return s == null ? 0 : 40 + 2L * s.length();
+    }
+
+    private static <T> List<T> unmodifiable(List<T> list) {
+        // copied, so the builder can't change it afterwards
+        return list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * A pronunciation that isn't an audio file.
+     */
+    public static final class Pronunciation {
+
+        private final IPronunciation.PronunciationType type;
+        private final String text;
+
+        public Pronunciation(IPronunciation.PronunciationType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        public IPronunciation.PronunciationType getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final String word;
+        private PartOfSpeech partOfSpeech;
+        private GrammaticalGender gender;
+        private final List<Pronunciation> pronunciations = new ArrayList<>();
+        private final List<FormattedSense> senses = new ArrayList<>();
+        private final Map<NLInflection, String> inflections = new EnumMap<>(NLInflection.class);
+        private String usage;
+        private final List<String> references = new ArrayList<>();
+        private String linkType;
+        private String link;
+
+        public Builder(String word) {
+            this.word = word;
+        }
+
+        public Builder partOfSpeech(PartOfSpeech partOfSpeech) {
+            this.partOfSpeech = partOfSpeech;
+            return this;
+        }
+
+        public Builder gender(GrammaticalGender gender) {
+            this.gender = gender;
+            return this;
+        }
+
+        public Builder pronunciation(IPronunciation.PronunciationType type, String text) {
+            pronunciations.add(new Pronunciation(type, text));
+            return this;
+        }
+
+        public Builder sense(FormattedSense sense) {
+            senses.add(sense);
+            return this;
+        }
+
+        public Builder inflections(Map<NLInflection, String> inflections) {
+            this.inflections.putAll(inflections);
+            return this;
+        }
+
+        public Builder usage(String usage) {
+            this.usage = usage;
+            return this;
+        }
+
+        public Builder reference(String reference) {
+            references.add(reference);
+            return this;
+        }
+
+        public Builder link(String linkType, String link) {
+            this.linkType = linkType;
+            this.link = link;
+            return this;
+        }
+
+        public FormattedEntry build() {
+            return new FormattedEntry(this);
+        }
+
+    }
+
+}
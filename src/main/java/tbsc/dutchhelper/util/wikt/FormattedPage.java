@@ -0,0 +1,118 @@
+package tbsc.dutchhelper.util.wikt;
+
+import tbsc.dutchhelper.util.wikt.render.EntryRenderer;
+import tbsc.dutchhelper.util.wikt.render.PlainTextRenderer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of formatting a page with {@link DefinitionFormatter#formatPage}: every Dutch entry,
+ * and which audio file the play button should use.
+ * Entries are kept as {@link FormattedEntry}s and only turned into text when asked to, with any
+ * {@link EntryRenderer}; the plain text the GUI shows is rendered once and then kept.
+ * Immutable, so it can be cached and shared between searches.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class FormattedPage {
+
+    private static final EntryRenderer PLAIN_TEXT = new PlainTextRenderer();
+
+    private final String title;
+    private final List<FormattedEntry> entries;
+    private final String audioFile;
+    private final boolean hasPronunciation;
+    private final long weight;
+
+    // rendered on first use; rendering twice concurrently is harmless, both give the same result
+    private volatile List<String> definitions;
+
+    /**
+     * @param title Title of the formatted page
+     * @param entries Each Dutch entry, formatted
+     * @param audioFile First non-Belgian audio file, or an empty string if there isn't one
+     * @param hasPronunciation Whether any Dutch entry had an audio pronunciation (even a Belgian one)
+     */
+    public FormattedPage(String title, List<FormattedEntry> entries, String audioFile, boolean hasPronunciation) {
+        this.title = title;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+        this.audioFile = audioFile;
+        this.hasPronunciation = hasPronunciation;
+        this.weight = estimateWeight();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return Unmodifiable list of entries, empty if the page has no Dutch entries
+     */
+    public List<FormattedEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return Whether the page has any Dutch entries
+     */
+    public boolean isDutch() {
+        return !entries.isEmpty();
+    }
+
+    /**
+     * @return Unmodifiable list of definitions as plain text, one per entry, empty if the page has no Dutch entries
+     */
+    public List<String> getDefinitions() {
+        List<String> result = definitions;
+        if (result == null) {
+            result = render(PLAIN_TEXT);
+            definitions = result;
+        }
+        return result;
+    }
+
+    /**
+     * @param renderer How to render each entry
+     * @return Unmodifiable list of rendered entries
+     */
+    public List<String> render(EntryRenderer renderer) {
+        List<String> result = new ArrayList<>(entries.size());
+        for (FormattedEntry entry : entries) {
+            result.add(renderer.render(entry));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return Audio file to play, or an empty string if there is none
+     */
+    public String getAudioFile() {
+        return audioFile;
+    }
+
+    public boolean hasPronunciation() {
+        return hasPronunciation;
+    }
+
+    /**
+     * @return Rough number of bytes this object keeps alive, used to bound {@link PageCache}
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    private long estimateWeight() {
+        // object headers and fields, then each entry twice: once as it is, and once more for the plain text
+        // that's kept after the page is shown, which is about as big
+        long result = 64 + FormattedEntry.stringWeight(title) + FormattedEntry.stringWeight(audioFile);
+        for (FormattedEntry entry : entries) {
+            result += 2 * entry.estimateWeight() + 8;
+        }
+        return result;
+    }
+
+}
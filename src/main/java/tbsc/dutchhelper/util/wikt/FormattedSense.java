@@ -0,0 +1,67 @@
+package tbsc.dutchhelper.util.wikt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One sense of a {@link FormattedEntry}: its gloss and examples, with Wiktionary formatting already removed.
+ * Immutable.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class FormattedSense {
+
+    private final int index;
+    private final String gloss;
+    private final List<String> examples;
+
+    /**
+     * @param index Index of the sense in its entry, 0 if it has none
+     * @param gloss Gloss, or null if the sense has none
+     * @param examples Examples, empty if there are none
+     */
+    public FormattedSense(int index, String gloss, List<String> examples) {
+        this.index = index;
+        this.gloss = gloss;
+        this.examples = examples.isEmpty()
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(examples));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The sense's index as shown to the user, "-" if it has none
+     */
+    public String getIndexText() {
+        return index == 0 ? "-" : Integer.toString(index);
+    }
+
+    /**
+     * @return Gloss, or null if the sense has none
+     */
+    public String getGloss() {
+        return gloss;
+    }
+
+    /**
+     * @return Unmodifiable list of examples, empty if there are none
+     */
+    public List<String> getExamples() {
+        return examples;
+    }
+
+    long estimateWeight() {
+        long result = 32 + FormattedEntry.stringWeight(gloss);
+        for (String example : examples) {
+            result += FormattedEntry.stringWeight(example) + 8;
+        }
+        return result;
+    }
+
+}
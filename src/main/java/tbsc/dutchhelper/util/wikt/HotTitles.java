@@ -0,0 +1,238 @@
+package tbsc.dutchhelper.util.wikt;
+
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.FrequencySketch;
+import tbsc.dutchhelper.util.Log;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Remembers which pages are looked up the most, across runs, so the next run can read and format them into
+ * {@link PageCache} before they're searched for (see {@link WiktionaryHelper#loadAsync()}), instead of starting with
+ * an empty cache every time.
+ *
+ * How often each title was looked up is kept in a {@link FrequencySketch}, and which titles are worth preloading in a
+ * small set of candidates: a title that isn't one yet replaces the least frequently used of
+ * {@value #EVICTION_SAMPLES} candidates picked at random, if it's used at least as often, and the least recently used
+ * one of those if there's a tie. That way both often and lately used titles are kept, without counting every title
+ * that was ever looked up, or going through every candidate on every lookup.
+ *
+ * Saved next to the database ({@value #FILE_NAME} in {@link WiktionaryHelper#getDatabasePath()}) when it's closed,
+ * and read when it's opened, with every count halved so older runs count for less than newer ones.
+ * Only used if {@link Constants#WARM_START} is enabled.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class HotTitles {
+
+    public static final String FILE_NAME = "hot-titles.dat";
+
+    private static final int MAGIC = 0x44484854;
+    private static final int VERSION = 1;
+    private static final int SKETCH_WIDTH = 4096;
+    /**
+     * Candidates kept for every page that's preloaded, so a title has some time to become frequent before it's
+     * replaced.
+     */
+    private static final int CANDIDATES_PER_PAGE = 4;
+    /**
+     * Candidates compared to find one to replace.
+     */
+    private static final int EVICTION_SAMPLES = 8;
+
+    private static final HotTitles INSTANCE = new HotTitles();
+    private static Log log = new Log(HotTitles.class);
+
+    private FrequencySketch sketch = new FrequencySketch(SKETCH_WIDTH);
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    // the same candidates, to pick random ones from
+    private final List<Candidate> candidateList = new ArrayList<>();
+    private final Random random = new Random();
+    private long clock = 0;
+    private boolean changed = false;
+
+    private HotTitles() {
+    }
+
+    public static HotTitles get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Counts a lookup of the title.
+     */
+    public synchronized void record(String title) {
+        if (!Constants.WARM_START || title == null) {
+            return;
+        }
+        sketch.increment(title);
+        changed = true;
+        clock++;
+
+        Candidate candidate = candidates.get(title);
+        if (candidate != null) {
+            candidate.lastUse = clock;
+            return;
+        }
+        if (candidates.size() < getMaxCandidates()) {
+            addCandidate(title);
+            return;
+        }
+
+        Candidate coldest = null;
+        int coldestFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLES; i++) {
+            Candidate sample = candidateList.get(random.nextInt(candidateList.size()));
+            int frequency = sketch.frequency(sample.title);
+            if (frequency < coldestFrequency || (frequency == coldestFrequency && sample.lastUse < coldest.lastUse)) {
+                coldest = sample;
+                coldestFrequency = frequency;
+            }
+        }
+        if (sketch.frequency(title) >= coldestFrequency) {
+            removeCandidate(coldest);
+            addCandidate(title);
+        }
+    }
+
+    /**
+     * @param count Amount of titles to return, at most
+     * @return The most frequently looked up titles, most frequent first, with more recently looked up titles first
+     * among equally frequent ones
+     */
+    public synchronized List<String> getHottest(int count) {
+        List<Candidate> sorted = new ArrayList<>(candidateList);
+        sorted.sort(Comparator.<Candidate>comparingInt(c -> -sketch.frequency(c.title))
+                .thenComparingLong(c -> -c.lastUse));
+
+        List<String> hottest = new ArrayList<>(Math.min(count, sorted.size()));
+        for (Candidate candidate : sorted.subList(0, Math.min(count, sorted.size()))) {
+            hottest.add(candidate.title);
+        }
+        return hottest;
+    }
+
+    /**
+     * Reads the titles saved by the last run, replacing whatever was counted so far. Meant to be called when the
+     * database is opened, before anything is looked up.
+     * If there's nothing saved, or it can't be read, counting starts from scratch.
+     * @param directory Directory of the database
+     */
+    public synchronized void load(File directory) {
+        File file = new File(directory, FILE_NAME);
+        if (!file.isFile()) {
+            log.d("No hot titles saved at %s", file);
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a hot titles file, or from another version");
+            }
+            FrequencySketch loaded = FrequencySketch.readFrom(in);
+            int count = in.readInt();
+            List<String> titles = new ArrayList<>(Math.min(count, getMaxCandidates()));
+            for (int i = 0; i < count; i++) {
+                String title = in.readUTF();
+                if (titles.size() < getMaxCandidates()) {
+                    titles.add(title);
+                }
+            }
+
+            // older runs count for less, and titles keep their order by giving the hottest one the latest use
+            loaded.halve();
+            sketch = loaded;
+            candidates.clear();
+            candidateList.clear();
+            clock = 0;
+            for (int i = titles.size() - 1; i >= 0; i--) {
+                if (!candidates.containsKey(titles.get(i))) {
+                    clock++;
+                    addCandidate(titles.get(i));
+                }
+            }
+            changed = false;
+            log.i("Read %d hot titles from %s", candidates.size(), file);
+        } catch (IOException e) {
+            log.w("Couldn't read hot titles from %s, starting over: %s", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the counts and the titles worth preloading, if anything was looked up since they were loaded.
+     * Failing is only logged, since the next run can do without.
+     * @param directory Directory of the database
+     */
+    public synchronized void save(File directory) {
+        if (!Constants.WARM_START || !changed || directory == null) {
+            return;
+        }
+
+        File file = new File(directory, FILE_NAME);
+        File tempFile = new File(file.getPath() + ".tmp");
+        List<String> titles = getHottest(candidates.size());
+        try {
+            try (DataOutputStream out =
+                         new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                sketch.writeTo(out);
+                out.writeInt(titles.size());
+                for (String title : titles) {
+                    out.writeUTF(title);
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            changed = false;
+            log.i("Saved %d hot titles to %s", titles.size(), file);
+        } catch (IOException e) {
+            log.w("Couldn't save hot titles to %s: %s", file, e.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Adds the title as a candidate, last used now.
+     */
+    private void addCandidate(String title) {
+        Candidate candidate = new Candidate(title, clock, candidateList.size());
+        candidates.put(title, candidate);
+        candidateList.add(candidate);
+    }
+
+    private void removeCandidate(Candidate candidate) {
+        candidates.remove(candidate.title);
+        // the last candidate takes its place, so nothing has to be shifted
+        Candidate last = candidateList.remove(candidateList.size() - 1);
+        if (last != candidate) {
+            last.index = candidate.index;
+            candidateList.set(last.index, last);
+        }
+    }
+
+    private static int getMaxCandidates() {
+        return Math.max(Constants.WARM_START_PAGES, 1) * CANDIDATES_PER_PAGE;
+    }
+
+    private static final class Candidate {
+
+        private final String title;
+        // when it was last looked up, as the value of clock at the time
+        private long lastUse;
+        // where it is in candidateList
+        private int index;
+
+        private Candidate(String title, long lastUse, int index) {
+            this.title = title;
+            this.lastUse = lastUse;
+            this.index = index;
+        }
+
+    }
+
+}
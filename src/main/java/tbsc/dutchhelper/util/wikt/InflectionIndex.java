@@ -0,0 +1,270 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionarySense;
+import de.tudarmstadt.ukp.jwktl.api.util.NLInflection;
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
+import org.apache.commons.lang3.ArrayUtils;
+import tbsc.dutchhelper.util.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Knows which lemma(s) an inflected form belongs to, so searching for "liep" or "huizen" can show the entry of
+ * "lopen" or "huis" right away, instead of only a "past tense of lopen" stub.
+ *
+ * Built by --build-index (see {@link DutchIndex}) from two places, since neither covers everything:
+ * the conjugation tables of verbs (every form in {@link IWiktionaryEntry#getDutchVerbInflections()}, so also forms
+ * that have no page of their own), and "form of" templates in the glosses of form entries (like
+ * {{nl-noun form of|pl|huis}} on "huizen").
+ *
+ * Forms are kept in one sorted array, with their lemmas in another, found with a binary search.
+ * Without the Dutch index there is no inflection index, and no lemmas are found.
+ * Immutable, so it can be used on any thread.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class InflectionIndex {
+
+    private static Log log = new Log(InflectionIndex.class);
+
+    private static final InflectionIndex EMPTY = new InflectionIndex(new String[0], new String[0][]);
+
+    /**
+     * Completed once the index was read, see {@link #loadAsync()}.
+     */
+    private static final CompletableFuture<InflectionIndex> ready = new CompletableFuture<>();
+
+    private final String[] forms;
+    private final String[][] lemmas;
+
+    private InflectionIndex(String[] forms, String[][] lemmas) {
+        this.forms = forms;
+        this.lemmas = lemmas;
+    }
+
+    /**
+     * Starts reading the index on a background thread once the database is open.
+     * @return Future that completes once lemmas can be found, the same one {@link #whenReady()} returns
+     */
+    public static CompletableFuture<InflectionIndex> loadAsync() {
+        Thread loader = new Thread(() -> {
+            try {
+                WiktionaryHelper.whenReady().join();
+                ready.complete(load());
+            } catch (RuntimeException e) {
+                // searches just won't show lemmas then
+                log.w("Loading inflection index failed: %s", e.getMessage());
+                ready.complete(EMPTY);
+            }
+        }, "Inflection index loader");
+        loader.setDaemon(true);
+        loader.setPriority(Thread.MIN_PRIORITY);
+        loader.start();
+        return ready;
+    }
+
+    public static CompletableFuture<InflectionIndex> whenReady() {
+        return ready;
+    }
+
+    /**
+     * @return The loaded index, or an empty one if it isn't loaded (yet)
+     */
+    public static InflectionIndex get() {
+        return ready.getNow(EMPTY);
+    }
+
+    private static InflectionIndex load() {
+        if (!WiktionaryHelper.isUsingDutchIndex()) {
+            log.i("Lemmas of inflected forms are only shown with the Dutch index, build it with --build-index");
+            return EMPTY;
+        }
+
+        File file = new File(WiktionaryHelper.getDatabasePath(), DutchIndex.INFLECTIONS_FILE_NAME);
+        if (!file.isFile()) {
+            log.i("Dutch index has no inflection index, rebuild it with --build-index");
+            return EMPTY;
+        }
+
+        long beforeTime = System.nanoTime();
+        InflectionIndex index;
+        try {
+            index = read(file);
+        } catch (IOException e) {
+            log.w("Couldn't read %s: %s", file, e.getMessage());
+            return EMPTY;
+        }
+        log.i("Loaded %d inflected forms in %dms", index.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beforeTime));
+        return index;
+    }
+
+    /**
+     * Reads an index written by {@link Builder#write(File)}, which is already sorted.
+     */
+    private static InflectionIndex read(File file) throws IOException {
+        List<String> forms = new ArrayList<>();
+        List<String[]> lemmas = new ArrayList<>();
+        // the same lemma is on many lines, so it's only kept once
+        Map<String, String> lemmaInstances = new HashMap<>();
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length < 2) {
+                    continue;
+                }
+                String[] lineLemmas = new String[fields.length - 1];
+                for (int i = 1; i < fields.length; i++) {
+                    lineLemmas[i - 1] = lemmaInstances.computeIfAbsent(fields[i], lemma -> lemma);
+                }
+                forms.add(fields[0]);
+                lemmas.add(lineLemmas);
+            }
+        }
+        return new InflectionIndex(forms.toArray(new String[0]), lemmas.toArray(new String[0][]));
+    }
+
+    public int size() {
+        return forms.length;
+    }
+
+    /**
+     * @param form Word as it was searched for
+     * @return Lemmas the word is a form of, empty if it isn't a known form of anything
+     */
+    public List<String> getLemmas(String form) {
+        int i = Arrays.binarySearch(forms, form);
+        return i < 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(lemmas[i]));
+    }
+
+    /**
+     * Collects forms and lemmas from every Dutch entry while {@link DutchIndex} is built.
+     */
+    public static final class Builder implements TemplateParser.ITemplateHandler {
+
+        /**
+         * Dutch-specific templates, their lemma is the first parameter for verbs and the second for the rest.
+         */
+        private static final String[] NL_TEMPLATES = {"nl-verb form of", "nl-noun form of", "nl-adj form of"};
+
+        /**
+         * Templates for every language, their lemma is the first parameter with lang=nl, or the second if the first
+         * is the language.
+         */
+        private static final String[] GENERIC_TEMPLATES = {
+                "inflection of", "plural of", "diminutive of", "past participle of", "present participle of",
+                "comparative of", "superlative of"
+        };
+
+        /**
+         * Not forms of the verb: the auxiliary is "hebben" or "zijn", and the class is a number.
+         */
+        private static final EnumSet<NLInflection> NOT_FORMS = EnumSet.of(NLInflection.AUXILIARY_VERB,
+                NLInflection.CLASS);
+
+        private final Map<String, Set<String>> lemmasByForm = new HashMap<>();
+
+        // the form whose gloss is being parsed, for handle()
+        private String currentForm;
+
+        /**
+         * @param title Title of the page the entry is on
+         * @param entry A Dutch entry
+         */
+        public void add(String title, IWiktionaryEntry entry) {
+            Map<NLInflection, String> inflections = entry.getDutchVerbInflections();
+            if (inflections != null) {
+                for (Map.Entry<NLInflection, String> inflection : inflections.entrySet()) {
+                    if (!NOT_FORMS.contains(inflection.getKey())) {
+                        put(inflection.getValue(), title);
+                    }
+                }
+            }
+
+            currentForm = title;
+            for (IWiktionarySense sense : entry.getSenses()) {
+                if (sense.getGloss() != null) {
+                    TemplateParser.parse(sense.getGloss().getText(), this);
+                }
+            }
+        }
+
+        /**
+         * Records the lemma of a "form of" template, but doesn't replace it.
+         * Templates that are missing their lemma, or are for another language, are skipped.
+         */
+        @Override
+        public String handle(TemplateParser.Template template) {
+            String name = template.getName();
+            if (ArrayUtils.contains(NL_TEMPLATES, name)) {
+                put(currentForm, getNumberedParam(template, "nl-verb form of".equals(name) ? 0 : 1));
+            } else if (ArrayUtils.contains(GENERIC_TEMPLATES, name)) {
+                if (template.getNamedParam("lang") != null) {
+                    if ("nl".equals(template.getNamedParam("lang"))) {
+                        put(currentForm, getNumberedParam(template, 0));
+                    }
+                } else if ("nl".equals(getNumberedParam(template, 0))) {
+                    put(currentForm, getNumberedParam(template, 1));
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return The parameter, or null if the template doesn't have that many (JWKTL throws instead)
+         */
+        private static String getNumberedParam(TemplateParser.Template template, int index) {
+            return index < template.getNumberedParamsCount() ? template.getNumberedParam(index) : null;
+        }
+
+        private void put(String form, String lemma) {
+            if (form == null || lemma == null) {
+                return;
+            }
+            form = form.trim();
+            lemma = lemma.trim();
+            // forms of separable verbs ("liep op") are never searched for as one word
+            if (form.isEmpty() || lemma.isEmpty() || form.equals(lemma) || form.indexOf(' ') >= 0) {
+                return;
+            }
+            lemmasByForm.computeIfAbsent(form, f -> new TreeSet<>()).add(lemma);
+        }
+
+        public int size() {
+            return lemmasByForm.size();
+        }
+
+        /**
+         * Writes the index sorted by form, one form per line, followed by its lemmas, all separated by tabs.
+         */
+        public void write(File file) throws IOException {
+            List<String> sortedForms = new ArrayList<>(lemmasByForm.keySet());
+            // the same order Arrays.binarySearch expects
+            Collections.sort(sortedForms);
+
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                    StandardCharsets.UTF_8))) {
+                for (String form : sortedForms) {
+                    out.write(form);
+                    for (String lemma : lemmasByForm.get(form)) {
+                        out.write('\t');
+                        out.write(lemma);
+                    }
+                    out.write('\n');
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package tbsc.dutchhelper.util.wikt;
+
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.EnvironmentConfig;
+import com.sleepycat.je.EnvironmentStats;
+import com.sleepycat.je.StatsConfig;
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Berkeley DB JE settings for the environments {@link JEWiktionaryEdition} opens, instead of the defaults JWKTL opens
+ * them with. Settings are JE's own parameters ("je.maxMemory", "je.env.isLocking", "je.log.faultReadSize"...), so
+ * anything JE can be configured with can be set, read from:
+ * - the config file ({@link Constants#JE_CONFIG_PATH}, changed with --je-config), a properties file of JE parameters;
+ * - the --je-* arguments, which override the config file, see {@link Constants#JE_PARAMS}.
+ *
+ * The app never writes to the database, so the environment is always read-only and non-transactional. Locking can be
+ * turned off on top of that (--je-no-locking), which JE allows since nothing writes.
+ *
+ * Also logs the effective settings and JE's cache statistics, so the cache can be sized by how many misses and
+ * evictions there were.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class JETuning {
+
+    private static Log log = new Log(JETuning.class);
+
+    private JETuning() {
+    }
+
+    /**
+     * Sets a JE parameter for every environment opened from now on, overriding the config file.
+     * @throws IllegalArgumentException If JE doesn't have the parameter, or the value isn't valid for it
+     */
+    public static void set(String name, String value) {
+        validate(name, value);
+        Constants.JE_PARAMS.setProperty(name, value);
+    }
+
+    /**
+     * @param cache Cache size in bytes ("512m", see {@link #parseSize(String)}), or percent of the heap ("25%")
+     * @throws IllegalArgumentException If the size isn't valid
+     */
+    public static void setCache(String cache) {
+        if (cache.endsWith("%")) {
+            set(EnvironmentConfig.MAX_MEMORY_PERCENT, cache.substring(0, cache.length() - 1));
+            // a size in bytes takes precedence over a percentage in JE, so a size from the config file is unset
+            set(EnvironmentConfig.MAX_MEMORY, "0");
+        } else {
+            set(EnvironmentConfig.MAX_MEMORY, Long.toString(parseSize(cache)));
+        }
+    }
+
+    /**
+     * @param size Amount of bytes, with an optional k, m or g suffix
+     * @throws IllegalArgumentException If it isn't a positive amount
+     */
+    public static long parseSize(String size) {
+        String number = size.trim().toLowerCase(Locale.ROOT);
+        long multiplier = 1;
+        if (!number.isEmpty()) {
+            switch (number.charAt(number.length() - 1)) {
+                case 'k':
+                    multiplier = 1024;
+                    break;
+                case 'm':
+                    multiplier = 1024 * 1024;
+                    break;
+                case 'g':
+                    multiplier = 1024 * 1024 * 1024;
+                    break;
+            }
+        }
+        if (multiplier != 1) {
+            number = number.substring(0, number.length() - 1);
+        }
+
+        try {
+            long bytes = Long.parseLong(number) * multiplier;
+            if (bytes > 0) {
+                return bytes;
+            }
+        } catch (NumberFormatException e) {
+            // thrown below
+        }
+        throw new IllegalArgumentException("Invalid size " + size);
+    }
+
+    /**
+     * Reads a config file and checks every parameter in it.
+     * @throws IllegalArgumentException If a parameter isn't valid
+     */
+    public static Properties readConfig(File file) throws IOException {
+        Properties config = new Properties();
+        try (Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            config.load(in);
+        }
+        for (String name : config.stringPropertyNames()) {
+            validate(name, config.getProperty(name));
+        }
+        return config;
+    }
+
+    /**
+     * Applies the config file, if there is one, and then the --je-* arguments.
+     * @return Every parameter that was set
+     */
+    static Properties configure(EnvironmentConfig config) {
+        Properties params = new Properties();
+        File file = new File(Constants.JE_CONFIG_PATH);
+        if (file.isFile()) {
+            try {
+                params.putAll(readConfig(file));
+                log.d("Read %d JE parameters from %s", params.size(), file);
+            } catch (IOException e) {
+                log.w("Couldn't read JE config %s: %s", file, e.getMessage());
+            }
+        }
+        params.putAll(Constants.JE_PARAMS);
+
+        for (String name : params.stringPropertyNames()) {
+            config.setConfigParam(name, params.getProperty(name));
+        }
+        return params;
+    }
+
+    /**
+     * Logs the settings the environment was opened with, and the value JE ended up with for each of the parameters.
+     * @param params Parameters {@link #configure(EnvironmentConfig)} set
+     */
+    static void logSettings(Environment env, Properties params) {
+        EnvironmentConfig config = env.getConfig();
+        long cacheSize = config.getCacheSize();
+        String cache = cacheSize > 0
+                ? formatBytes(cacheSize)
+                : config.getCachePercent() + "% of " + formatBytes(Runtime.getRuntime().maxMemory());
+        log.i("JE environment %s: cache %s%s, read-only %s, transactional %s, locking %s", env.getHome(), cache,
+                config.getSharedCache() ? " (shared)" : "", config.getReadOnly(), config.getTransactional(),
+                config.getLocking());
+
+        for (String name : params.stringPropertyNames()) {
+            log.i("JE parameter %s = %s", name, config.getConfigParam(name));
+        }
+    }
+
+    /**
+     * Logs how the cache did since the environment was opened.
+     * @param when What just happened, like "opened" or "closing"
+     */
+    static void logStats(Environment env, String when) {
+        EnvironmentStats stats = env.getStats(new StatsConfig());
+        long evicted = stats.getNBINsEvictedEvictorThread() + stats.getNBINsEvictedManual()
+                + stats.getNBINsEvictedCritical() + stats.getNBINsEvictedCacheMode()
+                + stats.getNBINsEvictedDaemon() + stats.getNUpperINsEvictedEvictorThread()
+                + stats.getNUpperINsEvictedManual() + stats.getNUpperINsEvictedCritical()
+                + stats.getNUpperINsEvictedCacheMode() + stats.getNUpperINsEvictedDaemon();
+        log.i("JE stats (%s): cache holds %s (%s of data), %d misses (%d BINs, %d LNs), %d nodes evicted "
+                        + "in %d passes, %d random and %d sequential reads (%s)", when,
+                formatBytes(stats.getCacheTotalBytes()), formatBytes(stats.getDataBytes()), stats.getNCacheMiss(),
+                stats.getNBINsFetchMiss(), stats.getNLNsFetchMiss(), evicted, stats.getNEvictPasses(),
+                stats.getNRandomReads(), stats.getNSequentialReads(),
+                formatBytes(stats.getNRandomReadBytes() + stats.getNSequentialReadBytes()));
+    }
+
+    private static void validate(String name, String value) {
+        // JE checks the name and the value, and throws if either isn't valid
+        new EnvironmentConfig().setConfigParam(name, value);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return String.format("%.1fMB", bytes / (1024.0 * 1024));
+        }
+        return String.format("%.1fKB", bytes / 1024.0);
+    }
+
+}
@@ -0,0 +1,230 @@
+package tbsc.dutchhelper.util.wikt;
+
+import com.sleepycat.je.*;
+import com.sleepycat.persist.EntityCursor;
+import com.sleepycat.persist.EntityStore;
+import com.sleepycat.persist.StoreConfig;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
+import de.tudarmstadt.ukp.jwktl.api.entry.BerkeleyDBWiktionaryEdition;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+import tbsc.dutchhelper.util.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * The edition {@link de.tudarmstadt.ukp.jwktl.JWKTL#openEdition(File)} opens, but with access to the Berkeley DB JE
+ * environment underneath it, which JWKTL keeps to itself, and configured by {@link JETuning} instead of with JWKTL's
+ * defaults. The default {@link DictionaryBackend}.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class JEWiktionaryEdition extends BerkeleyDBWiktionaryEdition implements DictionaryBackend {
+
+    public static final String BACKEND_NAME = "je";
+
+    private static Log log = new Log(JEWiktionaryEdition.class);
+
+    /**
+     * Opens the database read-only, same as {@link de.tudarmstadt.ukp.jwktl.JWKTL#openEdition(File)}.
+     * @param dbPath Directory of the database
+     */
+    public JEWiktionaryEdition(File dbPath) {
+        super(dbPath);
+    }
+
+    /**
+     * Same as JWKTL's, except that the environment is configured by {@link JETuning}. JWKTL builds the environment's
+     * config and opens it in one go, so the whole thing has to be done here.
+     */
+    @Override
+    protected void connect(boolean isReadOnly, boolean allowCreateNew, boolean overwriteExisting, Long cacheSize)
+            throws DatabaseException {
+        EnvironmentConfig envConfig = new EnvironmentConfig();
+        envConfig.setAllowCreate(allowCreateNew);
+        envConfig.setReadOnly(isReadOnly);
+        envConfig.setTransactional(false);
+        if (cacheSize != null) {
+            envConfig.setCacheSize(cacheSize);
+        }
+        Properties params = JETuning.configure(envConfig);
+        env = new Environment(dbPath, envConfig);
+        JETuning.logSettings(env, params);
+
+        StoreConfig storeConfig = new StoreConfig();
+        storeConfig.setAllowCreate(allowCreateNew);
+        storeConfig.setTransactional(false);
+        storeConfig.setReadOnly(isReadOnly);
+        store = new EntityStore(env, DATABASE_NAME, storeConfig);
+
+        properties = new Properties();
+        File propertyFile = new File(dbPath, PROPERTY_FILE_NAME);
+        if (propertyFile.exists()) {
+            try (Reader in = new InputStreamReader(new FileInputStream(propertyFile), StandardCharsets.UTF_8)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new WiktionaryException("Unable to load property file", e);
+            }
+            String languageCode = properties.getProperty("wiktionary.language");
+            if (languageCode == null) {
+                languageCode = properties.getProperty("entry_language");
+            }
+            language = Language.get(languageCode);
+        }
+
+        pageById = store.getPrimaryIndex(Long.class, WiktionaryPage.class);
+        pageByTitle = store.getSecondaryIndex(pageById, String.class, "title");
+        pageByNormalizedTitle = store.getSecondaryIndex(pageById, String.class, "normalizedTitle");
+        entryByKey = store.getPrimaryIndex(String.class, WiktionaryEntryProxy.class);
+        entryById = store.getSecondaryIndex(entryByKey, Long.class, "entryId");
+        senseByKey = store.getPrimaryIndex(String.class, WiktionarySenseProxy.class);
+        openCursors = new HashSet<>();
+
+        logEnvironmentStats("opened");
+    }
+
+    public Environment getEnvironment() {
+        return env;
+    }
+
+    /**
+     * Logs JE's cache statistics since the database was opened, see {@link JETuning}.
+     * @param when What just happened, like "opened" or "warmed up"
+     */
+    public void logStats(String when) {
+        ensureOpen();
+        logEnvironmentStats(when);
+    }
+
+    private void logEnvironmentStats(String when) {
+        try {
+            JETuning.logStats(env, when);
+        } catch (DatabaseException e) {
+            // only statistics
+            log.w("Couldn't read JE stats: %s", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return BACKEND_NAME;
+    }
+
+    /**
+     * Finds which page has the given title, using only the title index: the page itself isn't read, unlike with
+     * {@link #getPageForWord(String)}. Read it with {@link #getPageForId(long)}.
+     * @param title Exact title of the page
+     * @return Id of the page, or null if there's no page with that title
+     */
+    public Long getPageId(String title) {
+        ensureOpen();
+        if (title == null) {
+            return null;
+        }
+        try {
+            return pageByTitle.keysIndex().get(title);
+        } catch (DatabaseException e) {
+            throw new WiktionaryException(e);
+        }
+    }
+
+    /**
+     * Reads the pages in two steps instead of probing the B-trees at random for each title:
+     * - every title's page id is found in the title index, which is walked front to back since titles are sorted;
+     * - pages are then read sorted by their id, which is the order they were written to disk in.
+     * Both steps are split over several threads, each taking a consecutive part, since JE can read from many threads
+     * at once.
+     */
+    @Override
+    public PageBatch readPages(String[] titles) {
+        long startTime = System.nanoTime();
+        IWiktionaryPage[] pages = new IWiktionaryPage[titles.length];
+        int threads = WiktionaryHelper.lookupThreads(titles.length);
+
+        Long[] ids = new Long[titles.length];
+        WiktionaryHelper.runSplit(titles.length, threads, i -> ids[i] = getPageId(titles[i]));
+        long readStartTime = System.nanoTime();
+
+        Integer[] found = IntStream.range(0, titles.length)
+                .filter(i -> ids[i] != null)
+                .boxed()
+                .sorted(Comparator.comparing(i -> ids[i]))
+                .toArray(Integer[]::new);
+        WiktionaryHelper.runSplit(found.length, threads, k -> pages[found[k]] = getPageForId(ids[found[k]]));
+        long endTime = System.nanoTime();
+
+        return PageBatch.of(titles, pages, threads, readStartTime - startTime, endTime - readStartTime,
+                endTime - startTime);
+    }
+
+    /**
+     * Walks the title index only, no page is read.
+     */
+    @Override
+    public void forEachTitle(Consumer<? super String> action) {
+        ensureOpen();
+        try {
+            EntityCursor<String> titles = pageByTitle.keys();
+            try {
+                for (String title : titles) {
+                    action.accept(title);
+                }
+            } finally {
+                titles.close();
+            }
+        } catch (DatabaseException e) {
+            throw new WiktionaryException(e);
+        }
+    }
+
+    @Override
+    protected void doClose() {
+        if (env != null) {
+            logEnvironmentStats("closing");
+        }
+        super.doClose();
+    }
+
+    /**
+     * Loads the internal nodes of every B-tree in the database into JE's cache, so the first lookups don't have to
+     * read their way down the tree from disk. Only the internal nodes are loaded, pages themselves are still read
+     * when they're looked up.
+     * @param maxMillis How long warming up may take, at most
+     */
+    public void warmUp(long maxMillis) {
+        long deadline = System.currentTimeMillis() + maxMillis;
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setReadOnly(true);
+        // JWKTL created the databases, so whatever it configured them with is used
+        dbConfig.setUseExistingConfig(true);
+
+        for (String name : env.getDatabaseNames()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                log.d("Out of time for warming up, skipping %s and the rest", name);
+                return;
+            }
+
+            Database db = env.openDatabase(null, name, dbConfig);
+            try {
+                PreloadStats stats = db.preload(new PreloadConfig()
+                        .setLoadLNs(false)
+                        .setMaxMillisecs(remaining));
+                log.d("Warmed up %s: %d INs, %d BINs (%s)", name,
+                        stats.getNINsLoaded(), stats.getNBINsLoaded(), stats.getStatus());
+            } finally {
+                db.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package tbsc.dutchhelper.util.wikt;
+
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.Log;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes down every title looked up in {@link PageCache}, one per line in the order they were looked up, to
+ * {@link Constants#LOOKUP_TRACE_PATH} (set with --trace-lookups). The PageCacheBenchmark replays traces like this, to
+ * tell how well the cache does with real lookups.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class LookupTrace {
+
+    private static Log log = new Log(LookupTrace.class);
+    private static Writer writer;
+    private static boolean failed = false;
+    private static long count = 0;
+
+    private LookupTrace() {
+    }
+
+    /**
+     * Writes the title to the trace, if tracing is enabled.
+     */
+    public static synchronized void record(String title) {
+        if (Constants.LOOKUP_TRACE_PATH == null || title == null || failed) {
+            return;
+        }
+
+        try {
+            if (writer == null) {
+                writer = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(Constants.LOOKUP_TRACE_PATH, true), StandardCharsets.UTF_8));
+                log.d("Opened lookup trace %s", Constants.LOOKUP_TRACE_PATH);
+            }
+            writer.write(title);
+            writer.write('\n');
+            count++;
+        } catch (IOException e) {
+            log.w("Couldn't write lookup trace %s, not tracing anymore: %s", Constants.LOOKUP_TRACE_PATH,
+                    e.getMessage());
+            failed = true;
+        }
+    }
+
+    /**
+     * Flushes and closes the trace, if it was written to.
+     */
+    public static synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            writer.close();
+            log.i("Traced %d lookups to %s", count, Constants.LOOKUP_TRACE_PATH);
+        } catch (IOException e) {
+            log.w("Couldn't close lookup trace %s: %s", Constants.LOOKUP_TRACE_PATH, e.getMessage());
+        }
+        writer = null;
+    }
+
+}
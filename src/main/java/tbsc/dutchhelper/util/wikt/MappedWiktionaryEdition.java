@@ -0,0 +1,666 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.*;
+import de.tudarmstadt.ukp.jwktl.api.entry.*;
+import de.tudarmstadt.ukp.jwktl.api.filter.IWiktionaryEntryFilter;
+import de.tudarmstadt.ukp.jwktl.api.filter.IWiktionaryPageFilter;
+import de.tudarmstadt.ukp.jwktl.api.filter.IWiktionarySenseFilter;
+import de.tudarmstadt.ukp.jwktl.api.util.GrammaticalGender;
+import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
+import de.tudarmstadt.ukp.jwktl.api.util.IWiktionaryIterator;
+import de.tudarmstadt.ukp.jwktl.api.util.Language;
+import de.tudarmstadt.ukp.jwktl.api.util.NLInflection;
+import de.tudarmstadt.ukp.jwktl.api.util.WiktionaryIterator;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The Dutch pages of the database in one read-only file, which is memory-mapped instead of opened with Berkeley DB.
+ * Opening it takes no time, and pages are read straight from the OS's file cache, so nothing but the pages that are
+ * being formatted takes up memory. Written by --build-index next to the {@link DutchIndex}, and opened instead of it.
+ *
+ * Only what's shown about an entry is kept: its parts of speech, genders, pronunciations, senses (glosses, examples
+ * and references), usage notes, link, and verb inflections. Pages are the same {@link WiktionaryPage}s JWKTL would
+ * read, just with everything else left out, so they're formatted the same way. Only pages with Dutch entries are in
+ * the file, so a word that isn't Dutch isn't found at all.
+ *
+ * The file starts with a header of {@value #HEADER_SIZE} bytes, followed by two tables of pageCount + 1 ints, then
+ * every title, then every page:
+ * - header: magic, version, pageCount, and where the title offsets, page offsets, titles and pages start, and the
+ *   edition's language code;
+ * - title offsets: where each title starts in the titles, in title order, the last one being where they end;
+ * - page offsets: where each page starts in the pages, in the same order;
+ * - titles: UTF-8, sorted by their bytes, so a title is found with a binary search without decoding the others;
+ * - pages: each a list of entries, with numbers written as varints and strings as UTF-8 preceded by their length.
+ *
+ * Thread-safe: each page is read through its own view of the mapped file.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class MappedWiktionaryEdition extends WiktionaryEdition implements DictionaryBackend {
+
+    public static final String BACKEND_NAME = "mapped";
+
+    private static final int MAGIC = 0x44484443; // "DHDC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    /**
+     * An entry's id is its page's index and its index on the page, in the lowest this many bits.
+     */
+    private static final int ENTRY_ID_BITS = 16;
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final ILanguage language;
+
+    private final int pageCount;
+    private final int titleOffsetsStart;
+    private final int pageOffsetsStart;
+    private final int titlesStart;
+    private final int pagesStart;
+
+    /**
+     * Maps the file into memory; nothing is read yet besides the header.
+     * @param file File written by {@link Writer}
+     */
+    public MappedWiktionaryEdition(File file) {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer = mapped;
+        } catch (IOException e) {
+            throw new WiktionaryException(e);
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new WiktionaryException(file + " isn't a mapped dictionary");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new WiktionaryException(file + " has version " + buffer.getInt(4) + ", expected " + VERSION
+                    + "; rebuild it with --build-index");
+        }
+        pageCount = buffer.getInt(8);
+        titleOffsetsStart = buffer.getInt(12);
+        pageOffsetsStart = buffer.getInt(16);
+        titlesStart = buffer.getInt(20);
+        pagesStart = buffer.getInt(24);
+        byte[] code = new byte[3];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = buffer.get(28 + i);
+        }
+        language = Language.get(new String(code, StandardCharsets.US_ASCII));
+    }
+
+    public int size() {
+        return pageCount;
+    }
+
+    @Override
+    public String getName() {
+        return BACKEND_NAME;
+    }
+
+    @Override
+    public WiktionaryPage getPageForWord(String word) {
+        ensureOpen();
+        if (word == null) {
+            return null;
+        }
+        int index = find(word.getBytes(StandardCharsets.UTF_8));
+        return index < 0 ? null : readPage(index);
+    }
+
+    /**
+     * @param id Index of the page in title order, which is what {@link IWiktionaryPage#getId()} is for these pages
+     */
+    @Override
+    public WiktionaryPage getPageForId(long id) {
+        ensureOpen();
+        return id >= 0 && id < pageCount ? readPage((int) id) : null;
+    }
+
+    /**
+     * Titles are only looked up exactly, so normalize is ignored.
+     */
+    @Override
+    public List<IWiktionaryPage> getPagesForWord(String word, IWiktionaryPageFilter filter, boolean normalize) {
+        WiktionaryPage page = getPageForWord(word);
+        if (page == null || (filter != null && !filter.accept(page))) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(page);
+    }
+
+    /**
+     * Every page, always sorted by title; normalize is ignored.
+     */
+    @Override
+    public IWiktionaryIterator<IWiktionaryPage> getAllPages(IWiktionaryPageFilter filter, boolean sort,
+                                                           boolean normalize) {
+        return iterate(Collections::singletonList, page -> filter == null || filter.accept(page));
+    }
+
+    /**
+     * Titles are decoded straight from the title table, no page is read.
+     */
+    @Override
+    public void forEachTitle(Consumer<? super String> action) {
+        ensureOpen();
+        for (int i = 0; i < pageCount; i++) {
+            action.accept(readTitle(i));
+        }
+    }
+
+    /**
+     * Every entry, in the order of their pages' titles; normalize is ignored.
+     */
+    @Override
+    public IWiktionaryIterator<IWiktionaryEntry> getAllEntries(IWiktionaryEntryFilter filter, boolean sort,
+                                                              boolean normalize) {
+        return iterate(WiktionaryPage::getEntries, entry -> filter == null || filter.accept(entry));
+    }
+
+    /**
+     * Every sense of every entry, in the order of their pages' titles; normalize is ignored.
+     */
+    @Override
+    public IWiktionaryIterator<IWiktionarySense> getAllSenses(IWiktionarySenseFilter filter, boolean sort,
+                                                             boolean normalize) {
+        return iterate(page -> {
+            List<IWiktionarySense> senses = new ArrayList<>();
+            for (IWiktionaryEntry entry : page.getEntries()) {
+                for (IWiktionarySense sense : entry.getSenses()) {
+                    senses.add(sense);
+                }
+            }
+            return senses;
+        }, sense -> filter == null || filter.accept(sense));
+    }
+
+    /**
+     * @param id Index of the entry's page shifted left by {@value #ENTRY_ID_BITS} bits, plus its index on the page,
+     *           which is what {@link IWiktionaryEntry#getId()} is for these entries
+     */
+    @Override
+    public IWiktionaryEntry getEntryForId(long id) {
+        WiktionaryPage page = getPageForId(id >>> ENTRY_ID_BITS);
+        int index = (int) (id & ((1 << ENTRY_ID_BITS) - 1));
+        return page == null || index >= page.getEntryCount() ? null : page.getEntry(index);
+    }
+
+    /**
+     * @param key Index of the sense's page, its entry's index on the page and the sense's index in the entry,
+     *            separated by colons, which is what {@link IWiktionarySense#getKey()} is for these senses
+     */
+    @Override
+    public IWiktionarySense getSenseForKey(String key) {
+        String[] parts = key == null ? new String[0] : key.split(":");
+        if (parts.length != 3) {
+            return null;
+        }
+
+        IWiktionaryEntry entry;
+        try {
+            entry = getEntryForId((Long.parseLong(parts[0]) << ENTRY_ID_BITS) | Integer.parseInt(parts[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (entry == null) {
+            return null;
+        }
+        for (IWiktionarySense sense : entry.getSenses(true)) {
+            if (sense.getId().equals(parts[2])) {
+                return sense;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ILanguage getLanguage() {
+        return language;
+    }
+
+    @Override
+    public File getDBPath() {
+        return file.getParentFile();
+    }
+
+    @Override
+    protected void doClose() {
+        // the mapping is released once the buffer is garbage collected, there's no way to release it sooner
+    }
+
+    /**
+     * Reads every page in title order, and passes on the items of each that the filter accepts.
+     * @param items What to pass on from a page
+     */
+    private <T> IWiktionaryIterator<T> iterate(Function<WiktionaryPage, List<? extends T>> items,
+                                               Predicate<? super T> filter) {
+        ensureOpen();
+        return new WiktionaryIterator<T>() {
+            private int nextPage = 0;
+            private Iterator<? extends T> pageItems = Collections.emptyIterator();
+
+            @Override
+            protected T fetchNext() {
+                while (true) {
+                    while (pageItems.hasNext()) {
+                        T item = pageItems.next();
+                        if (filter.test(item)) {
+                            return item;
+                        }
+                    }
+                    if (nextPage >= pageCount) {
+                        return null;
+                    }
+                    pageItems = items.apply(readPage(nextPage++)).iterator();
+                }
+            }
+
+            @Override
+            protected void doClose() {
+            }
+        };
+    }
+
+    /**
+     * @return Index of the title, or a negative number if there's no page with that title
+     */
+    private int find(byte[] title) {
+        int lo = 0;
+        int hi = pageCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareTitle(mid, title);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the index'th title to the given one, byte by byte, without decoding it.
+     */
+    private int compareTitle(int index, byte[] title) {
+        int from = titlesStart + buffer.getInt(titleOffsetsStart + 4 * index);
+        int length = titlesStart + buffer.getInt(titleOffsetsStart + 4 * (index + 1)) - from;
+        int common = Math.min(length, title.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = (buffer.get(from + i) & 0xff) - (title[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - title.length;
+    }
+
+    private String readTitle(int index) {
+        int titleFrom = titlesStart + buffer.getInt(titleOffsetsStart + 4 * index);
+        int titleTo = titlesStart + buffer.getInt(titleOffsetsStart + 4 * (index + 1));
+        return new Input(buffer, titleFrom).readBytes(titleTo - titleFrom);
+    }
+
+    private WiktionaryPage readPage(int index) {
+        WiktionaryPage page = new WiktionaryPage();
+        page.setId(index);
+        page.setTitle(readTitle(index));
+        page.setEntryLanguage(language);
+
+        Input in = new Input(buffer, pagesStart + buffer.getInt(pageOffsetsStart + 4 * index));
+        int entries = in.readVarInt();
+        ILanguage dutch = WiktionaryHelper.getNLD();
+        for (int i = 0; i < entries; i++) {
+            WiktionaryEntry entry = readEntry(in, dutch);
+            page.addEntry(entry);
+            entry.setId(((long) index << ENTRY_ID_BITS) | i);
+        }
+        // same as JWKTL does for pages it reads, links entries and senses to their page
+        page.init();
+        return page;
+    }
+
+    private static WiktionaryEntry readEntry(Input in, ILanguage dutch) {
+        WiktionaryEntry entry = new WiktionaryEntry();
+        entry.setWordLanguage(dutch);
+
+        int partsOfSpeech = in.readVarInt();
+        for (int i = 0; i < partsOfSpeech; i++) {
+            entry.addPartOfSpeech(PartOfSpeech.valueOf(in.readString()));
+        }
+        int genders = in.readCount();
+        for (int i = 0; i < genders; i++) {
+            entry.addGender(GrammaticalGender.valueOf(in.readString()));
+        }
+        int pronunciations = in.readCount();
+        for (int i = 0; i < pronunciations; i++) {
+            String typeName = in.readString();
+            IPronunciation.PronunciationType type = typeName == null ? null
+                    : IPronunciation.PronunciationType.valueOf(typeName);
+            entry.addPronunciation(new Pronunciation(type, in.readString(), in.readString()));
+        }
+
+        String usageNotes = in.readString();
+        if (usageNotes != null) {
+            entry.setUsageNotes(new WikiString(usageNotes));
+        }
+        String link = in.readString();
+        String linkType = in.readString();
+        if (link != null) {
+            entry.setEntryLink(link, linkType);
+        }
+
+        int inflections = in.readVarInt();
+        for (int i = 0; i < inflections; i++) {
+            entry.addDutchVerbInflection(NLInflection.valueOf(in.readString()), in.readString());
+        }
+
+        // the first sense is the entry's unassigned one, which every entry has
+        int senses = in.readVarInt();
+        for (int i = 0; i < senses; i++) {
+            WiktionarySense sense = i == 0 ? entry.getUnassignedSense() : entry.createSense();
+            readSense(in, sense);
+            if (i > 0) {
+                // numbers the sense, so senses have to be added in order
+                entry.addSense(sense);
+            }
+        }
+        return entry;
+    }
+
+    private static void readSense(Input in, WiktionarySense sense) {
+        String gloss = in.readString();
+        if (gloss != null) {
+            sense.setGloss(new WikiString(gloss));
+        }
+        int examples = in.readCount();
+        for (int i = 0; i < examples; i++) {
+            sense.addExample(new WiktionaryExample(new WikiString(in.readString())));
+        }
+        int references = in.readCount();
+        for (int i = 0; i < references; i++) {
+            sense.addReference(new WikiString(in.readString()));
+        }
+    }
+
+    /**
+     * Reads from its own view of the mapped file, so reads on different threads don't get in each other's way.
+     */
+    private static final class Input {
+
+        private final ByteBuffer in;
+
+        private Input(ByteBuffer buffer, int position) {
+            in = buffer.duplicate();
+            in.position(position);
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.get();
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        /**
+         * @return Size of a list that can be null, which JWKTL does for lists that were never added to
+         */
+        private int readCount() {
+            return readVarInt() - 1;
+        }
+
+        private String readString() {
+            int length = readVarInt() - 1;
+            return length < 0 ? null : readBytes(length);
+        }
+
+        private String readBytes(int length) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+    }
+
+    /**
+     * Writes a mapped dictionary, one page at a time, while {@link DutchIndex} is built.
+     * Pages are written to a temporary file as they come, and only sorted by title when the file is finished, so only
+     * the titles are kept in memory.
+     */
+    public static final class Writer implements Closeable {
+
+        private final File pagesFile;
+        private final DataOutputStream pages;
+        private final ILanguage language;
+
+        private final List<byte[]> titles = new ArrayList<>();
+        private final List<Integer> offsets = new ArrayList<>();
+        private final Set<String> added = new HashSet<>();
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream(4096);
+        private int size = 0;
+
+        /**
+         * @param directory Where the temporary file of pages is written
+         * @param language Language of the edition the pages are from
+         */
+        public Writer(File directory, ILanguage language) throws IOException {
+            this.language = language;
+            pagesFile = File.createTempFile("pages", ".tmp", directory);
+            pages = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(pagesFile)));
+        }
+
+        /**
+         * @param page Page with only Dutch entries; pages without any are skipped
+         */
+        public void add(IWiktionaryPage page) throws IOException {
+            if (page.getEntryCount() == 0 || !added.add(page.getTitle())) {
+                return;
+            }
+
+            record.reset();
+            DataOutputStream out = new DataOutputStream(record);
+            writeVarInt(out, page.getEntryCount());
+            for (IWiktionaryEntry entry : page.getEntries()) {
+                writeEntry(out, entry);
+            }
+
+            if ((long) size + record.size() > Integer.MAX_VALUE - HEADER_SIZE) {
+                throw new IOException("Too many Dutch pages for a mapped dictionary");
+            }
+            titles.add(page.getTitle().getBytes(StandardCharsets.UTF_8));
+            offsets.add(size);
+            record.writeTo(pages);
+            size += record.size();
+        }
+
+        /**
+         * Writes the dictionary, replacing the file if it exists. Adding pages after this isn't possible.
+         */
+        public void write(File file) throws IOException {
+            pages.close();
+
+            Integer[] order = new Integer[titles.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compareBytes(titles.get(a), titles.get(b)));
+
+            int pageCount = order.length;
+            int titleOffsetsStart = HEADER_SIZE;
+            int pageOffsetsStart = titleOffsetsStart + 4 * (pageCount + 1);
+            int titlesStart = pageOffsetsStart + 4 * (pageCount + 1);
+            long titlesSize = 0;
+            for (byte[] title : titles) {
+                titlesSize += title.length;
+            }
+            long pagesStart = titlesStart + titlesSize;
+            if (pagesStart + size > Integer.MAX_VALUE) {
+                throw new IOException("Too many Dutch pages for a mapped dictionary");
+            }
+
+            File tempFile = new File(file.getPath() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(pageCount);
+                out.writeInt(titleOffsetsStart);
+                out.writeInt(pageOffsetsStart);
+                out.writeInt(titlesStart);
+                out.writeInt((int) pagesStart);
+                byte[] code = Arrays.copyOf(language.getCode().getBytes(StandardCharsets.US_ASCII), 4);
+                out.write(code);
+
+                int titleOffset = 0;
+                for (Integer i : order) {
+                    out.writeInt(titleOffset);
+                    titleOffset += titles.get(i).length;
+                }
+                out.writeInt(titleOffset);
+
+                for (Integer i : order) {
+                    out.writeInt(offsets.get(i));
+                }
+                out.writeInt(size);
+
+                for (Integer i : order) {
+                    out.write(titles.get(i));
+                }
+                // pages stay in the order they were added, the offsets say where each one is
+                Files.copy(pagesFile.toPath(), out);
+            } finally {
+                Files.deleteIfExists(pagesFile.toPath());
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        public int size() {
+            return titles.size();
+        }
+
+        /**
+         * Deletes the temporary file, if {@link #write(File)} wasn't called.
+         */
+        @Override
+        public void close() throws IOException {
+            pages.close();
+            Files.deleteIfExists(pagesFile.toPath());
+        }
+
+        private static void writeEntry(DataOutputStream out, IWiktionaryEntry entry) throws IOException {
+            writeVarInt(out, entry.getPartsOfSpeech().size());
+            for (PartOfSpeech pos : entry.getPartsOfSpeech()) {
+                writeString(out, pos.name());
+            }
+            List<GrammaticalGender> genders = entry.getGenders();
+            writeCount(out, genders);
+            if (genders != null) {
+                for (GrammaticalGender gender : genders) {
+                    writeString(out, gender.name());
+                }
+            }
+            List<IPronunciation> pronunciations = entry.getPronunciations();
+            writeCount(out, pronunciations);
+            if (pronunciations != null) {
+                for (IPronunciation p : pronunciations) {
+                    writeString(out, p.getType() == null ? null : p.getType().name());
+                    writeString(out, p.getText());
+                    writeString(out, p.getNote());
+                }
+            }
+
+            writeString(out, entry.getUsageNotes() == null ? null : entry.getUsageNotes().getText());
+            writeString(out, entry.getEntryLink());
+            writeString(out, entry.getEntryLinkType());
+
+            Map<NLInflection, String> inflections = entry.getDutchVerbInflections();
+            writeVarInt(out, inflections == null ? 0 : inflections.size());
+            if (inflections != null) {
+                for (Map.Entry<NLInflection, String> inflection : inflections.entrySet()) {
+                    writeString(out, inflection.getKey().name());
+                    writeString(out, inflection.getValue());
+                }
+            }
+
+            List<IWiktionarySense> senses = new ArrayList<>();
+            for (IWiktionarySense sense : entry.getSenses(true)) {
+                senses.add(sense);
+            }
+            writeVarInt(out, senses.size());
+            for (IWiktionarySense sense : senses) {
+                writeString(out, sense.getGloss() == null ? null : sense.getGloss().getText());
+                List<IWiktionaryExample> examples = sense.getExamples();
+                writeCount(out, examples);
+                if (examples != null) {
+                    for (IWiktionaryExample example : examples) {
+                        writeString(out, example.getText());
+                    }
+                }
+                List<IWikiString> references = sense.getReferences();
+                writeCount(out, references);
+                if (references != null) {
+                    for (IWikiString reference : references) {
+                        writeString(out, reference.getText());
+                    }
+                }
+            }
+        }
+
+        private static void writeCount(DataOutputStream out, List<?> list) throws IOException {
+            writeVarInt(out, list == null ? 0 : list.size() + 1);
+        }
+
+        private static void writeString(DataOutputStream out, String s) throws IOException {
+            if (s == null) {
+                writeVarInt(out, 0);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length + 1);
+            out.write(bytes);
+        }
+
+        private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+            while ((value & ~0x7f) != 0) {
+                out.write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+
+        private static int compareBytes(byte[] a, byte[] b) {
+            int common = Math.min(a.length, b.length);
+            for (int i = 0; i < common; i++) {
+                int cmp = (a[i] & 0xff) - (b[i] & 0xff);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return a.length - b.length;
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import tbsc.dutchhelper.util.Log;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every Dutch page in memory, already read, so a lookup is only a hash map lookup. Takes long to open and
+ * lots of memory, so it's not for everyday use, but for telling how much of a search's time is spent reading pages
+ * from the other backends, and as a stand-in database made out of pages in code.
+ *
+ * Only pages with Dutch entries are kept, and only their Dutch entries, like the mapped dictionary does, so a word
+ * that isn't Dutch isn't found at all.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class MemoryBackend implements DictionaryBackend {
+
+    public static final String BACKEND_NAME = "memory";
+
+    /**
+     * Titles copied from another backend are read in batches this big.
+     */
+    private static final int COPY_BATCH_SIZE = 4096;
+
+    private static final int PROGRESS_INTERVAL = 100000;
+
+    private static Log log = new Log(MemoryBackend.class);
+
+    private final Map<String, IWiktionaryPage> pages;
+    // sorted by UTF-8 bytes, like other backends pass on their titles
+    private final String[] titles;
+
+    /**
+     * @param pages Pages to keep; pages without Dutch entries are left out, and other languages' entries are
+     *              removed from the rest
+     */
+    public MemoryBackend(Collection<? extends IWiktionaryPage> pages) {
+        this.pages = new HashMap<>(pages.size() * 2);
+        for (IWiktionaryPage page : pages) {
+            IWiktionaryPage dutch = onlyDutch(page);
+            if (dutch != null) {
+                this.pages.put(dutch.getTitle(), dutch);
+            }
+        }
+
+        titles = this.pages.keySet().toArray(new String[0]);
+        Arrays.sort(titles, Comparator.comparing(title -> title.getBytes(StandardCharsets.UTF_8),
+                MemoryBackend::compareBytes));
+    }
+
+    /**
+     * Reads every page of another backend into memory.
+     * @param source Backend to read from, which is left open
+     */
+    public static MemoryBackend copyOf(DictionaryBackend source) {
+        log.i("Reading every page from the %s backend into memory...", source.getName());
+        long startTime = System.nanoTime();
+
+        List<String> titles = new ArrayList<>();
+        source.forEachTitle(titles::add);
+
+        List<IWiktionaryPage> pages = new ArrayList<>();
+        for (int from = 0; from < titles.size(); from += COPY_BATCH_SIZE) {
+            List<String> batch = titles.subList(from, Math.min(from + COPY_BATCH_SIZE, titles.size()));
+            for (Optional<IWiktionaryPage> page : source.readPages(batch.toArray(new String[0])).getResults().values()) {
+                page.map(MemoryBackend::onlyDutch).ifPresent(pages::add);
+            }
+            if ((from + batch.size()) / PROGRESS_INTERVAL > from / PROGRESS_INTERVAL) {
+                log.i("Read %d of %d pages...", from + batch.size(), titles.size());
+            }
+        }
+
+        MemoryBackend backend = new MemoryBackend(pages);
+        log.i("Read %d pages (%d with Dutch entries) into memory in %dms", titles.size(), backend.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return backend;
+    }
+
+    /**
+     * @return Amount of pages kept
+     */
+    public int size() {
+        return titles.length;
+    }
+
+    @Override
+    public String getName() {
+        return BACKEND_NAME;
+    }
+
+    @Override
+    public IWiktionaryPage getPageForWord(String word) {
+        return word == null ? null : pages.get(word);
+    }
+
+    /**
+     * Nothing to read, so the titles are looked up on the calling thread.
+     */
+    @Override
+    public PageBatch readPages(String[] titles) {
+        long startTime = System.nanoTime();
+        IWiktionaryPage[] found = new IWiktionaryPage[titles.length];
+        for (int i = 0; i < titles.length; i++) {
+            found[i] = pages.get(titles[i]);
+        }
+        long duration = System.nanoTime() - startTime;
+        return PageBatch.of(titles, found, 1, 0, duration, duration);
+    }
+
+    @Override
+    public void forEachTitle(Consumer<? super String> action) {
+        for (String title : titles) {
+            action.accept(title);
+        }
+    }
+
+    /**
+     * Nothing to close, the pages are kept until the backend isn't used anymore.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return The page with only its Dutch entries, or null if it has none
+     */
+    private static IWiktionaryPage onlyDutch(IWiktionaryPage page) {
+        if (WiktionaryHelper.getDutchEntries(page).isEmpty()) {
+            return null;
+        }
+        if (page instanceof WiktionaryPage) {
+            ((WiktionaryPage) page).entries().removeIf(e -> e.getWordLanguage() != WiktionaryHelper.getNLD());
+        }
+        return page;
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = (a[i] & 0xff) - (b[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+}
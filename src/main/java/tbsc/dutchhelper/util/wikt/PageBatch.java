@@ -0,0 +1,135 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of looking up many words at once with {@link WiktionaryHelper#getPages(Collection)}: the page of every word,
+ * with words that have no page marked as misses, and how long the lookup took.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class PageBatch {
+
+    private final Map<String, Optional<IWiktionaryPage>> results;
+    private final List<String> misses;
+    private final int threads;
+    private final long resolveNanos;
+    private final long readNanos;
+    private final long totalNanos;
+
+    /**
+     * @param results Page of each word, empty for misses, in the order the words were looked up in
+     * @param resolveNanos Time spent finding which page each word has, 0 if it wasn't done separately
+     * @param readNanos Time spent reading the pages
+     * @param totalNanos Time the whole lookup took, sorting and waiting for threads included
+     */
+    PageBatch(Map<String, Optional<IWiktionaryPage>> results, int threads,
+              long resolveNanos, long readNanos, long totalNanos) {
+        this.results = Collections.unmodifiableMap(results);
+        List<String> misses = new ArrayList<>();
+        results.forEach((word, page) -> {
+            if (!page.isPresent()) {
+                misses.add(word);
+            }
+        });
+        this.misses = Collections.unmodifiableList(misses);
+        this.threads = threads;
+        this.resolveNanos = resolveNanos;
+        this.readNanos = readNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @param titles Titles that were looked up, sorted
+     * @param pages Page of each title, at the same index, null for misses
+     */
+    static PageBatch of(String[] titles, IWiktionaryPage[] pages, int threads,
+                        long resolveNanos, long readNanos, long totalNanos) {
+        Map<String, Optional<IWiktionaryPage>> results = new LinkedHashMap<>(titles.length * 2);
+        for (int i = 0; i < titles.length; i++) {
+            results.put(titles[i], Optional.ofNullable(pages[i]));
+        }
+        return new PageBatch(results, Math.max(threads, 1), resolveNanos, readNanos, totalNanos);
+    }
+
+    /**
+     * @return Page of every word in the batch, each word once, sorted. A word without a page maps to an empty
+     * Optional, so it can be told apart from a word that wasn't in the batch at all.
+     */
+    public Map<String, Optional<IWiktionaryPage>> getResults() {
+        return results;
+    }
+
+    /**
+     * @param word One of the words in the batch
+     * @return Its page, or empty if it has none
+     * @throws IllegalArgumentException If the word wasn't in the batch
+     */
+    public Optional<IWiktionaryPage> get(String word) {
+        Optional<IWiktionaryPage> page = results.get(word);
+        if (page == null) {
+            throw new IllegalArgumentException(word + " wasn't looked up in this batch");
+        }
+        return page;
+    }
+
+    /**
+     * @return Words without a page, sorted
+     */
+    public List<String> getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Amount of distinct words looked up
+     */
+    public int size() {
+        return results.size();
+    }
+
+    public int getFoundCount() {
+        return results.size() - misses.size();
+    }
+
+    /**
+     * @return Amount of threads the lookup was split over
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return Nanoseconds spent finding which page each word has, without reading the pages; 0 if the database
+     * can't do that separately, then it's part of {@link #getReadNanos()}
+     */
+    public long getResolveNanos() {
+        return resolveNanos;
+    }
+
+    /**
+     * @return Nanoseconds spent reading the pages
+     */
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+    /**
+     * @return Nanoseconds the whole lookup took
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d words (%d found, %d missing) in %dms on %d threads (resolving %dms, reading %dms)",
+                size(), getFoundCount(), misses.size(), TimeUnit.NANOSECONDS.toMillis(totalNanos), threads,
+                TimeUnit.NANOSECONDS.toMillis(resolveNanos), TimeUnit.NANOSECONDS.toMillis(readNanos));
+    }
+
+}
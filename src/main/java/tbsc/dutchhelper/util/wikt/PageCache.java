@@ -0,0 +1,382 @@
+package tbsc.dutchhelper.util.wikt;
+
+import tbsc.dutchhelper.Constants;
+import tbsc.dutchhelper.util.FrequencySketch;
+import tbsc.dutchhelper.util.Log;
+
+import java.util.*;
+
+/**
+ * Cache of formatted pages, keyed by page title (the word that was looked up), so searching for the same word
+ * again doesn't read and format the page again.
+ * Bounded both by amount of pages ({@link Constants#PAGE_CACHE_MAX_ENTRIES}) and by their approximate size in bytes
+ * ({@link Constants#PAGE_CACHE_MAX_BYTES}).
+ *
+ * Lookups are a few hundred common words and a long tail of words looked up once, like most of the words of a text
+ * pasted into text mode, which would push every common word out of a plain LRU cache. So pages are kept W-TinyLFU
+ * style: how often each title is looked up is counted in a {@link FrequencySketch}, and
+ * - a new page goes into a small LRU window ({@value #WINDOW_PERCENT}% of the cache), so a word that's looked up a
+ *   few times in a row is cached no matter how rare it is;
+ * - the page pushed out of the window is only kept if its title is looked up more often than the titles of all the
+ *   pages it would push out of the rest of the cache, otherwise it's rejected and nothing is pushed out for it;
+ * - the rest of the cache is split into probation, for pages that weren't looked up again since they got there, and
+ *   protected ({@value #PROTECTED_PERCENT}% of it), for pages that were. Pages are pushed out of probation first.
+ * Every part is bounded by the sizes of its pages as well as their amount, so one big page counts as many small ones.
+ *
+ * The cache belongs to the database it was filled from, so if {@link Constants#DATABASE_PATH} changes it's emptied.
+ *
+ * Every page that's cached or found in the cache counts as a lookup for {@link HotTitles}, so the pages used the most
+ * can be preloaded on the next start, see {@link #preload(String, FormattedPage)}.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class PageCache {
+
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private static final PageCache INSTANCE = new PageCache();
+    private static Log log = new Log(PageCache.class);
+
+    // all access order, so iteration starts from the least recently used page
+    private final Region window = new Region();
+    private final Region probation = new Region();
+    private final Region protect = new Region();
+    private FrequencySketch sketch = newSketch();
+    private String databasePath = Constants.DATABASE_PATH;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long rejections = 0;
+
+    private PageCache() {
+    }
+
+    public static PageCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param title Title of the page
+     * @return The cached formatted page, or null if it isn't cached
+     */
+    public FormattedPage getIfPresent(String title) {
+        // both have locks of their own, and don't need to hold up other lookups
+        LookupTrace.record(title);
+        FormattedPage page = lookUp(title);
+        if (page != null) {
+            HotTitles.get().record(title);
+        }
+        return page;
+    }
+
+    private synchronized FormattedPage lookUp(String title) {
+        checkDatabase();
+        sketch.increment(title);
+
+        FormattedPage page = window.get(title);
+        if (page == null) {
+            page = protect.get(title);
+        }
+        if (page == null) {
+            page = probation.remove(title);
+            if (page != null) {
+                // looked up again while on probation, so it's worth protecting
+                protect.put(title, page);
+                demoteProtected();
+            }
+        }
+
+        if (page == null) {
+            misses++;
+            log.d(() -> String.format("Page cache miss for %s (%s)", title, getStats()));
+        } else {
+            hits++;
+            log.d(() -> String.format("Page cache hit for %s (%s)", title, getStats()));
+        }
+        return page;
+    }
+
+    /**
+     * Caches the formatted page in the window, pushing pages out of the window and the rest of the cache until the
+     * cache is within its bounds. This page might be rejected too, once it's pushed out of the window.
+     * A page that is bigger than the whole cache is never cached.
+     */
+    public void put(String title, FormattedPage page) {
+        if (cache(title, page)) {
+            HotTitles.get().record(title);
+        }
+    }
+
+    /**
+     * @return Whether the page was small enough to be cached
+     */
+    private synchronized boolean cache(String title, FormattedPage page) {
+        checkDatabase();
+
+        if (page.getWeight() > Constants.PAGE_CACHE_MAX_BYTES) {
+            log.d("Not caching %s, it's bigger than the whole page cache (%d bytes)", title, page.getWeight());
+            return false;
+        }
+
+        // replacing a page keeps it where it is, it's the same page formatted again
+        if (protect.replace(title, page) || probation.replace(title, page)) {
+            evict();
+            return true;
+        }
+        window.put(title, page);
+        evict();
+        return true;
+    }
+
+    /**
+     * Caches a page that wasn't looked up yet, but likely will be. Unlike {@link #put(String, FormattedPage)}, it
+     * isn't counted as a lookup, and it's only cached if there's room for it without evicting anything, since the
+     * pages that are already cached were actually looked up. It goes straight into the protected part of the cache
+     * while there's room there, since it was looked up a lot before.
+     * @return Whether the page was cached
+     */
+    public synchronized boolean preload(String title, FormattedPage page) {
+        checkDatabase();
+
+        if (contains(title) || size() + 1 > Constants.PAGE_CACHE_MAX_ENTRIES
+                || getWeight() + page.getWeight() > Constants.PAGE_CACHE_MAX_BYTES) {
+            return false;
+        }
+        if (fits(protect, page, PROTECTED_PERCENT * (100 - WINDOW_PERCENT) / 100)) {
+            protect.put(title, page);
+        } else {
+            probation.put(title, page);
+        }
+        return true;
+    }
+
+    /**
+     * Empties the cache and forgets how often titles were looked up, but keeps the counters in {@link #getStats()}.
+     */
+    public synchronized void clear() {
+        window.clear();
+        probation.clear();
+        protect.clear();
+        sketch = newSketch();
+        log.d("Cleared page cache");
+    }
+
+    /**
+     * @return Amount of pages cached
+     */
+    public synchronized int size() {
+        return window.pages.size() + probation.pages.size() + protect.pages.size();
+    }
+
+    /**
+     * @return Approximate size of the cached pages, in bytes
+     */
+    public synchronized long getWeight() {
+        return window.bytes + probation.bytes + protect.bytes;
+    }
+
+    /**
+     * @return Share of lookups that found the page cached, between 0 and 1
+     */
+    public synchronized double getHitRatio() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Amount of pages that were pushed out of the window but not kept, since their titles weren't looked up
+     * more often than the pages they would have pushed out
+     */
+    public synchronized long getRejections() {
+        return rejections;
+    }
+
+    /**
+     * @return Amount of pages that were kept but pushed out later
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Human-readable summary of the cache's counters, for logging
+     */
+    public synchronized String getStats() {
+        return String.format("%d pages (%d window, %d probation, %d protected), ~%d KB, hit ratio %.1f%%, %d hits, "
+                        + "%d misses, %d evictions, %d rejected", size(), window.pages.size(), probation.pages.size(),
+                protect.pages.size(), getWeight() / 1024, getHitRatio() * 100, hits, misses, evictions, rejections);
+    }
+
+    private boolean contains(String title) {
+        return window.pages.containsKey(title) || probation.pages.containsKey(title)
+                || protect.pages.containsKey(title);
+    }
+
+    /**
+     * Moves pages that don't fit in the window to probation, each only if it's looked up more often than the pages it
+     * pushes out of the rest of the cache, until everything is within bounds.
+     */
+    private void evict() {
+        while (!window.pages.isEmpty() && !fits(window, null, WINDOW_PERCENT)) {
+            Map.Entry<String, FormattedPage> candidate = window.eldest();
+            window.remove(candidate.getKey());
+            admit(candidate.getKey(), candidate.getValue());
+        }
+        // replacing a page with a bigger one can leave the cache over its bounds without anything to admit
+        while (isOverBounds()) {
+            Region region = !probation.pages.isEmpty() ? probation : !protect.pages.isEmpty() ? protect : window;
+            String evicted = region.eldest().getKey();
+            region.remove(evicted);
+            evictions++;
+            log.d(() -> String.format("Evicted %s from page cache (%s)", evicted, getStats()));
+        }
+    }
+
+    private boolean isOverBounds() {
+        return size() > Constants.PAGE_CACHE_MAX_ENTRIES || getWeight() > Constants.PAGE_CACHE_MAX_BYTES;
+    }
+
+    /**
+     * Keeps a page pushed out of the window if its title is looked up more often than the titles of all the pages it
+     * would push out, least recently used probation pages first and then protected ones. Otherwise it's rejected,
+     * and nothing is pushed out for it, so a big page can't push out a few rarely used pages and then be rejected
+     * anyway because of a frequently used one.
+     */
+    private void admit(String title, FormattedPage page) {
+        int frequency = sketch.frequency(title);
+        List<Map.Entry<String, FormattedPage>> victims = new ArrayList<>();
+        int entries = size() + 1;
+        long bytes = getWeight() + page.getWeight();
+
+        Iterator<Map.Entry<String, FormattedPage>> probationPages = probation.pages.entrySet().iterator();
+        Iterator<Map.Entry<String, FormattedPage>> protectedPages = protect.pages.entrySet().iterator();
+        while (entries > Constants.PAGE_CACHE_MAX_ENTRIES || bytes > Constants.PAGE_CACHE_MAX_BYTES) {
+            Map.Entry<String, FormattedPage> victim = probationPages.hasNext() ? probationPages.next()
+                    : protectedPages.hasNext() ? protectedPages.next() : null;
+            if (victim == null || frequency <= sketch.frequency(victim.getKey())) {
+                rejected(title);
+                return;
+            }
+            victims.add(victim);
+            entries--;
+            bytes -= victim.getValue().getWeight();
+        }
+
+        for (Map.Entry<String, FormattedPage> victim : victims) {
+            String evicted = victim.getKey();
+            if (probation.remove(evicted) == null) {
+                protect.remove(evicted);
+            }
+            evictions++;
+            log.d(() -> String.format("Evicted %s from page cache for %s (%s)", evicted, title, getStats()));
+        }
+        probation.put(title, page);
+    }
+
+    /**
+     * Moves the least recently used protected pages back to probation while there are too many.
+     */
+    private void demoteProtected() {
+        while (protect.pages.size() > 1 && !fits(protect, null, PROTECTED_PERCENT * (100 - WINDOW_PERCENT) / 100)) {
+            Map.Entry<String, FormattedPage> eldest = protect.eldest();
+            protect.remove(eldest.getKey());
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void rejected(String title) {
+        rejections++;
+        log.d(() -> String.format("Rejected %s from page cache, it's not looked up often enough (%s)", title,
+                getStats()));
+    }
+
+    /**
+     * @param extra Page that would be added, or null
+     * @param percent Share of the whole cache the region may take
+     * @return Whether the region (with the extra page) is within its share of both bounds
+     */
+    private static boolean fits(Region region, FormattedPage extra, int percent) {
+        int entries = region.pages.size() + (extra == null ? 0 : 1);
+        long bytes = region.bytes + (extra == null ? 0 : extra.getWeight());
+        return entries <= Math.max(Constants.PAGE_CACHE_MAX_ENTRIES * percent / 100, 1)
+                && bytes <= Constants.PAGE_CACHE_MAX_BYTES * percent / 100;
+    }
+
+    private static FrequencySketch newSketch() {
+        return new FrequencySketch(Constants.PAGE_CACHE_MAX_ENTRIES);
+    }
+
+    /**
+     * Cached pages are only valid for the database they were read from.
+     */
+    private void checkDatabase() {
+        if (!databasePath.equals(Constants.DATABASE_PATH)) {
+            log.d("Database path changed from %s to %s, invalidating page cache", databasePath, Constants.DATABASE_PATH);
+            clear();
+            databasePath = Constants.DATABASE_PATH;
+        }
+    }
+
+    /**
+     * Part of the cache, with the total size of its pages.
+     */
+    private static final class Region {
+
+        private final LinkedHashMap<String, FormattedPage> pages = new LinkedHashMap<>(16, 0.75F, true);
+        private long bytes = 0;
+
+        FormattedPage get(String title) {
+            return pages.get(title);
+        }
+
+        void put(String title, FormattedPage page) {
+            FormattedPage previous = pages.put(title, page);
+            if (previous != null) {
+                bytes -= previous.getWeight();
+            }
+            bytes += page.getWeight();
+        }
+
+        /**
+         * @return Whether the page was in this region and was replaced
+         */
+        boolean replace(String title, FormattedPage page) {
+            if (!pages.containsKey(title)) {
+                return false;
+            }
+            put(title, page);
+            return true;
+        }
+
+        FormattedPage remove(String title) {
+            FormattedPage page = pages.remove(title);
+            if (page != null) {
+                bytes -= page.getWeight();
+            }
+            return page;
+        }
+
+        Map.Entry<String, FormattedPage> eldest() {
+            Iterator<Map.Entry<String, FormattedPage>> it = pages.entrySet().iterator();
+            return it.hasNext() ? it.next() : null;
+        }
+
+        void clear() {
+            pages.clear();
+            bytes = 0;
+        }
+
+    }
+
+}
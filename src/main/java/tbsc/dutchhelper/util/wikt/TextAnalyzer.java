@@ -0,0 +1,205 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import tbsc.dutchhelper.util.Log;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Looks up every word of a text at once, for reading a whole paragraph instead of searching word by word.
+ *
+ * Words (see {@link DutchTokenizer}) are looked up in chunks, in the order they're in the text. The first chunk is
+ * small so its results can be shown right away, and every next one is twice as big, so most of a long text is read in
+ * big batches, which {@link WiktionaryHelper#getPages(Collection)} reads faster per word. A chunk is read in one batch:
+ * every way its words might be written, and the lemmas of those that are inflected forms (see
+ * {@link InflectionIndex}), all at once. Pages are formatted in parallel, and cached like searched pages are.
+ *
+ * A word is matched the way it's written, or else lowercase, and a word with hyphens that isn't in the dictionary
+ * as a whole is matched part by part. Each page is only shown once, by the first word that matched it, so "Het" at the
+ * start of a sentence doesn't show "het" again, nor "liep" show "lopen" after "lopen" did.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class TextAnalyzer {
+
+    private static Log log = new Log(TextAnalyzer.class);
+
+    private static final int FIRST_CHUNK_SIZE = 8;
+    private static final int MAX_CHUNK_SIZE = 128;
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Looks up the words on the calling thread, passing on the results of each chunk once it's done.
+     * @param words Words to look up, usually from {@link DutchTokenizer#tokenize(String)}
+     * @param onChunk Gets the results of each chunk, in the order of the words
+     * @param cancelled Checked before each chunk, the rest of the words aren't looked up once it's true
+     */
+    public static void analyze(List<String> words, Consumer<List<AnalyzedWord>> onChunk, BooleanSupplier cancelled) {
+        Set<String> shownTitles = new HashSet<>();
+        int chunkSize = FIRST_CHUNK_SIZE;
+        for (int from = 0; from < words.size(); from += chunkSize, chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE)) {
+            if (cancelled.getAsBoolean()) {
+                return;
+            }
+            List<String> chunk = words.subList(from, Math.min(from + chunkSize, words.size()));
+            Map<String, FormattedPage> pages = readChunk(chunk);
+
+            List<AnalyzedWord> results = new ArrayList<>(chunk.size());
+            for (String word : chunk) {
+                List<FormattedPage> matched = match(word, pages);
+                List<FormattedPage> unseen = matched.stream()
+                        .filter(page -> shownTitles.add(page.getTitle()))
+                        .collect(Collectors.toList());
+                results.add(new AnalyzedWord(word, !matched.isEmpty(), unseen));
+            }
+            onChunk.accept(results);
+        }
+    }
+
+    /**
+     * Reads and formats every page the chunk's words could match, the ones that are cached from the cache.
+     * @return Formatted page of each title that has one
+     */
+    private static Map<String, FormattedPage> readChunk(List<String> chunk) {
+        Set<String> titles = new LinkedHashSet<>();
+        for (String word : chunk) {
+            addTitles(word, titles);
+            for (String part : DutchTokenizer.parts(word)) {
+                addTitles(part, titles);
+            }
+        }
+
+        Map<String, FormattedPage> pages = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String title : titles) {
+            FormattedPage cached = PageCache.get().getIfPresent(title);
+            if (cached != null) {
+                pages.put(title, cached);
+            } else {
+                uncached.add(title);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return pages;
+        }
+
+        PageBatch batch = WiktionaryHelper.getPages(uncached);
+        long startTime = System.nanoTime();
+        Map<String, FormattedPage> formatted = batch.getResults().entrySet().parallelStream()
+                .filter(result -> result.getValue().isPresent())
+                .collect(Collectors.toMap(Map.Entry::getKey, result -> format(result.getKey(), result.getValue().get())));
+        pages.putAll(formatted);
+        if (log.isDebugEnabled()) {
+            log.d("Read %d pages for %d words (%d cached): %s, formatted in %dus", uncached.size(), chunk.size(),
+                    titles.size() - uncached.size(), batch, (System.nanoTime() - startTime) / 1000);
+        }
+        return pages;
+    }
+
+    /**
+     * Adds every way the word might be written, and their lemmas.
+     */
+    private static void addTitles(String word, Set<String> titles) {
+        for (String variant : DutchTokenizer.variants(word)) {
+            titles.add(variant);
+            titles.addAll(InflectionIndex.get().getLemmas(variant));
+        }
+    }
+
+    private static FormattedPage format(String title, IWiktionaryPage page) {
+        FormattedPage formatted = DefinitionFormatter.formatPage(page);
+        PageCache.get().put(title, formatted);
+        return formatted;
+    }
+
+    /**
+     * @return Dutch pages the word matched: its own and its lemmas', or its parts' if the whole word matched nothing
+     */
+    private static List<FormattedPage> match(String word, Map<String, FormattedPage> pages) {
+        List<FormattedPage> matched = matchWhole(word, pages);
+        if (matched.isEmpty()) {
+            for (String part : DutchTokenizer.parts(word)) {
+                matched.addAll(matchWhole(part, pages));
+            }
+        }
+        return matched;
+    }
+
+    private static List<FormattedPage> matchWhole(String word, Map<String, FormattedPage> pages) {
+        List<FormattedPage> matched = new ArrayList<>();
+        for (String variant : DutchTokenizer.variants(word)) {
+            FormattedPage own = pages.get(variant);
+            if (own != null && own.isDutch()) {
+                matched.add(own);
+            }
+            for (String lemma : InflectionIndex.get().getLemmas(variant)) {
+                FormattedPage lemmaPage = pages.get(lemma);
+                if (lemmaPage != null && lemmaPage.isDutch()) {
+                    matched.add(lemmaPage);
+                }
+            }
+            // the way the word is written wins over lowercase
+            if (!matched.isEmpty()) {
+                return matched;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * What a word of the text matched.
+     */
+    public static final class AnalyzedWord {
+
+        private final String word;
+        private final boolean found;
+        private final List<FormattedPage> pages;
+
+        private AnalyzedWord(String word, boolean found, List<FormattedPage> pages) {
+            this.word = word;
+            this.found = found;
+            this.pages = Collections.unmodifiableList(pages);
+        }
+
+        /**
+         * @return The word as it's written in the text
+         */
+        public String getWord() {
+            return word;
+        }
+
+        /**
+         * @return Whether any Dutch page matched the word, even if it was already shown for an earlier word
+         */
+        public boolean isFound() {
+            return found;
+        }
+
+        /**
+         * @return Dutch pages the word matched that no earlier word did, in the order they should be shown
+         */
+        public List<FormattedPage> getPages() {
+            return pages;
+        }
+
+        /**
+         * @return Definitions of {@link #getPages()}, as shown in the definitions list
+         */
+        public List<String> getDefinitions() {
+            List<String> definitions = new ArrayList<>();
+            for (FormattedPage page : pages) {
+                definitions.addAll(page.getDefinitions());
+            }
+            return definitions;
+        }
+
+    }
+
+}
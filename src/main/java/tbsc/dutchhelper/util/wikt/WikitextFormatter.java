@@ -0,0 +1,214 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
+import tbsc.dutchhelper.util.wikt.handlers.TemplateHandlerRegistry;
+
+/**
+ * Strips Wiktionary formatting in a single scan, replacing the old chain of {@link TemplateParser#parse} calls
+ * (one per handler) followed by two regex passes.
+ *
+ * Templates are tokenized exactly like {@link TemplateParser} does it (a template ends at the first "}}", and an
+ * unclosed "{{" is dropped), but every template is sent straight to its handler through
+ * {@link TemplateHandlerRegistry}.
+ * Wiki links and bold/italic quotes are then resolved inside the same output buffer, without regex, and with the
+ * same results the old regex passes gave (including links and quotes that come out of template handlers).
+ *
+ * An instance only holds its (immutable) handler registry and a buffer per thread, so one instance can format on any
+ * number of threads at once without them sharing anything, and without allocating a new buffer on every call.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class WikitextFormatter {
+
+    private static final WikitextFormatter DEFAULT = new WikitextFormatter(TemplateHandlerRegistry.get());
+
+    /**
+     * Buffers that grew bigger than this (for an unusually long text) aren't kept, so they don't stay in memory.
+     */
+    private static final int MAX_KEPT_CAPACITY = 16 * 1024;
+
+    private final TemplateHandlerRegistry registry;
+
+    // null while the thread's buffer is in use
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * @param registry Handlers templates are replaced with
+     */
+    public WikitextFormatter(TemplateHandlerRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @return Formatter with every handler DutchHelper uses
+     */
+    public static WikitextFormatter get() {
+        return DEFAULT;
+    }
+
+    /**
+     * Attempts to strip out Wiktionary formatting, such as {{hello}} or [[thing]].
+     * @param s String to de-format
+     * @return De-formatted string
+     */
+    public String format(String s) {
+        StringBuilder result = buffers.get();
+        boolean kept = result != null;
+        if (kept) {
+            buffers.set(null);
+        } else {
+            // a handler is formatting something while this thread's buffer is being used further up
+            result = new StringBuilder(s.length());
+        }
+
+        try {
+            rewriteTemplates(s, result);
+            stripInlineMarkup(result);
+            return result.toString();
+        } finally {
+            if (kept && result.capacity() <= MAX_KEPT_CAPACITY) {
+                result.setLength(0);
+                buffers.set(result);
+            } else if (kept) {
+                buffers.remove();
+            }
+        }
+    }
+
+    /**
+     * Copies the string into the builder, replacing every template that has a handler.
+     * Tokenizing is the same as {@link TemplateParser#parse}, so unhandled templates are copied as-is.
+     */
+    private void rewriteTemplates(String s, StringBuilder out) {
+        int copied = 0;
+        int start = s.indexOf("{{");
+        while (start >= 0) {
+            out.append(s, copied, start);
+
+            int end = s.indexOf("}}", start);
+            if (end < 0) {
+                // TemplateParser drops an unclosed "{{" and keeps going, so do the same
+                copied = start + 2;
+                start = s.indexOf("{{", copied);
+                continue;
+            }
+
+            String replacement = handleTemplate(s, start + 2, end);
+            if (replacement != null) {
+                out.append(replacement);
+            } else {
+                out.append(s, start, end + 2);
+            }
+
+            copied = end + 2;
+            start = s.indexOf("{{", copied);
+        }
+        out.append(s, copied, s.length());
+    }
+
+    /**
+     * Looks up the handler by the template's name before parsing any parameters,
+     * so templates nobody handles don't cost anything more than a map lookup.
+     * Every name belongs to exactly one handler, which is what lets a single scan give the same output as running
+     * every handler on its own.
+     * @return Replacement text, or null if the template should stay as it is
+     */
+    private String handleTemplate(String s, int from, int to) {
+        int nameEnd = s.indexOf('|', from);
+        if (nameEnd < 0 || nameEnd > to) {
+            nameEnd = to;
+        }
+
+        return registry.handle(s.substring(from, nameEnd), s.substring(from, to));
+    }
+
+    /**
+     * Removes [[link|text]] links (keeping only the text) and '' / ''' quotes, compacting the builder in place.
+     * Links are matched the way the old regex, \[\[((?:[^|\]]+?\|)*)([^|\]]+?)]], matched them, and quotes are
+     * removed after links, just like the old '''? pass did.
+     */
+    private static void stripInlineMarkup(StringBuilder b) {
+        int length = b.length();
+        int read = 0;
+        int write = 0;
+        int quotes = 0;
+
+        while (read < length) {
+            int textStart = read;
+            int textEnd = read + 1;
+
+            if (b.charAt(read) == '[' && read + 1 < length && b.charAt(read + 1) == '[') {
+                int linkEnd = findLinkEnd(b, read + 2, length);
+                if (linkEnd >= 0) {
+                    // only the last part of the link (the displayed text) is kept
+                    textStart = lastSegmentStart(b, read + 2, linkEnd);
+                    textEnd = linkEnd;
+                    read = linkEnd + 2;
+                } else {
+                    read++;
+                }
+            } else {
+                read++;
+            }
+
+            // writing never overtakes reading, since links and quotes only ever get shorter
+            for (int i = textStart; i < textEnd; i++) {
+                char c = b.charAt(i);
+                if (c == '\'') {
+                    quotes++;
+                    continue;
+                }
+                write = flushQuotes(b, write, quotes);
+                quotes = 0;
+                b.setCharAt(write++, c);
+            }
+        }
+
+        write = flushQuotes(b, write, quotes);
+        b.setLength(write);
+    }
+
+    /**
+     * Finds where a link's content ends (the index of the closing "]]"), or -1 if it isn't a valid link.
+     * Content can't contain ']' and every '|'-separated part of it has to be non-empty.
+     */
+    private static int findLinkEnd(StringBuilder b, int from, int length) {
+        int segmentStart = from;
+        for (int i = from; i < length; i++) {
+            char c = b.charAt(i);
+            if (c == '|') {
+                if (i == segmentStart) {
+                    return -1;
+                }
+                segmentStart = i + 1;
+            } else if (c == ']') {
+                boolean closed = i + 1 < length && b.charAt(i + 1) == ']';
+                return closed && i > segmentStart ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastSegmentStart(StringBuilder b, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (b.charAt(i) == '|') {
+                return i + 1;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * '''? removes quotes three at a time and then two at a time, so out of a run of quotes
+     * only one is left, and only if the run's length leaves a remainder of one.
+     */
+    private static int flushQuotes(StringBuilder b, int write, int quotes) {
+        if (quotes % 3 == 1) {
+            b.setCharAt(write++, '\'');
+        }
+        return write;
+    }
+
+}
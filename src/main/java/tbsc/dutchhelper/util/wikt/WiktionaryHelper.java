@@ -1,24 +1,24 @@
 package tbsc.dutchhelper.util.wikt;
 
-import de.tudarmstadt.ukp.jwktl.JWKTL;
-import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEdition;
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
 import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.WiktionaryException;
 import de.tudarmstadt.ukp.jwktl.api.util.ILanguage;
 import de.tudarmstadt.ukp.jwktl.api.util.Language;
-import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 import tbsc.dutchhelper.Constants;
 import tbsc.dutchhelper.util.Log;
-import tbsc.dutchhelper.util.wikt.handlers.*;
+import tbsc.dutchhelper.util.StartupTimer;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -34,33 +34,216 @@ import java.util.stream.Collectors;
  */
 public final class WiktionaryHelper {
 
-    private static IWiktionaryEdition wikt;
+    /**
+     * Threads {@link #getPages(Collection)} splits a lookup over, at most; the calling thread is one of them.
+     */
+    private static final int LOOKUP_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * A thread isn't worth handing fewer pages than this.
+     */
+    private static final int MIN_PAGES_PER_THREAD = 8;
+
+    private static final ExecutorService LOOKUP_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(LOOKUP_THREADS - 1, 1), r -> {
+                Thread thread = new Thread(r, "Page lookup");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static volatile DictionaryBackend wikt;
+    private static volatile File databasePath;
     private static Log log = new Log(WiktionaryHelper.class);
 
     /**
-     * Loads the Wiktionary database into {@link #wikt}.
+     * Completed once the database is open, see {@link #loadAsync()}.
+     */
+    private static final CompletableFuture<DictionaryBackend> ready = new CompletableFuture<>();
+    private static volatile boolean loading = false;
+
+    /**
+     * Starts loading the database on a background thread, so the GUI doesn't have to wait for it.
+     * Right after opening, the pages looked up the most in previous runs are preloaded if enabled through
+     * {@link Constants#WARM_START}, and the database is warmed up if enabled through
+     * {@link Constants#WARM_DATABASE_CACHE}, but the returned future doesn't wait for either.
+     * @return Future that completes with the database once it's open, the same one {@link #whenReady()} returns
+     */
+    public static CompletableFuture<DictionaryBackend> loadAsync() {
+        loading = true;
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.e("Loading database failed: %s", e.getMessage());
+                ready.completeExceptionally(e);
+                StartupTimer.databaseReady();
+                return;
+            }
+
+            if (Constants.WARM_START) {
+                preloadHotPages();
+            }
+            if (Constants.WARM_DATABASE_CACHE) {
+                warmUp();
+            }
+            StartupTimer.databaseReady();
+        }, "Database loader");
+        // nothing to wait for if the program is closed before the database is even open
+        loader.setDaemon(true);
+        loader.start();
+        return ready;
+    }
+
+    /**
+     * Loads the Wiktionary database into {@link #wikt}, on the calling thread, with the backend chosen by
+     * {@link Constants#DICTIONARY_BACKEND}.
      * THIS ALSO ADDS A SHUTDOWN HOOK THAT CLOSES THE DATABASE!
      */
-    public static void load() {
+    public static synchronized void load() {
+        if (wikt != null) {
+            return;
+        }
         log.i("Loading database...");
 
-        long beforeTime = System.currentTimeMillis();
-        wikt = JWKTL.openEdition(new File(Constants.DATABASE_PATH));
-        long afterTime = System.currentTimeMillis();
+        // the Dutch index has the same pages with only Dutch entries, so it can be used in place of the database
+        File path = new File(Constants.DATABASE_PATH);
+        File mappedFile = null;
+        if (Constants.USE_DUTCH_INDEX && DutchIndex.isUpToDate(path)) {
+            path = DutchIndex.getPath(path);
+            log.i("Using Dutch index at %s", path);
+            // indexes built before the mapped dictionary existed don't have one
+            if (Constants.USE_MAPPED_DICTIONARY && new File(path, DutchIndex.MAPPED_FILE_NAME).isFile()) {
+                mappedFile = new File(path, DutchIndex.MAPPED_FILE_NAME);
+            }
+        }
+
+        long beforeTime = System.nanoTime();
+        wikt = openBackend(path, mappedFile);
+        databasePath = path;
+        if (Constants.WARM_START) {
+            HotTitles.get().load(path);
+        }
+        long duration = System.nanoTime() - beforeTime;
 
-        long duration = afterTime - beforeTime;
-        log.i("Database loaded in %d seconds!", TimeUnit.MILLISECONDS.toSeconds(duration));
+        StartupTimer.record(StartupTimer.Phase.DATABASE_OPEN, duration);
+        log.i("Database loaded in %dms, using the %s backend!", TimeUnit.NANOSECONDS.toMillis(duration),
+                wikt.getName());
 
         // Shutdown hook to close database when execution ends
         Runtime.getRuntime().addShutdownHook(new Thread(WiktionaryHelper::close));
+        ready.complete(wikt);
+    }
+
+    /**
+     * @param path Directory of the database to open, the Dutch index's if it's used
+     * @param mappedFile Its mapped dictionary, or null if there's none or it's disabled
+     */
+    private static DictionaryBackend openBackend(File path, File mappedFile) {
+        String backend = Constants.DICTIONARY_BACKEND;
+        if (backend == null) {
+            backend = mappedFile != null ? MappedWiktionaryEdition.BACKEND_NAME : JEWiktionaryEdition.BACKEND_NAME;
+        }
+
+        switch (backend) {
+            case JEWiktionaryEdition.BACKEND_NAME:
+                return new JEWiktionaryEdition(path);
+            case MappedWiktionaryEdition.BACKEND_NAME:
+                if (mappedFile == null) {
+                    throw new WiktionaryException("There's no mapped dictionary in " + path
+                            + ", build it with --build-index");
+                }
+                log.i("Using mapped dictionary %s", mappedFile);
+                return new MappedWiktionaryEdition(mappedFile);
+            case MemoryBackend.BACKEND_NAME:
+                // copied from the fastest backend there is, which is closed once it's copied
+                DictionaryBackend source = mappedFile != null
+                        ? new MappedWiktionaryEdition(mappedFile)
+                        : new JEWiktionaryEdition(path);
+                try {
+                    return MemoryBackend.copyOf(source);
+                } finally {
+                    source.close();
+                }
+            default:
+                throw new WiktionaryException("Unknown dictionary backend " + backend);
+        }
+    }
+
+    /**
+     * Pre-loads the database's B-trees into JE's cache, see {@link JEWiktionaryEdition#warmUp(long)}.
+     * Searches can already run while this happens.
+     */
+    private static void warmUp() {
+        if (!(wikt instanceof JEWiktionaryEdition)) {
+            return;
+        }
+        log.i("Warming up database cache...");
+
+        long beforeTime = System.nanoTime();
+        try {
+            ((JEWiktionaryEdition) wikt).warmUp(Constants.WARM_DATABASE_CACHE_MAX_MILLIS);
+        } catch (RuntimeException e) {
+            // it's only an optimization
+            log.w("Warming up database cache failed: %s", e.getMessage());
+        }
+        long duration = System.nanoTime() - beforeTime;
+
+        StartupTimer.record(StartupTimer.Phase.CACHE_WARM, duration);
+        log.i("Database cache warmed up in %dms", TimeUnit.NANOSECONDS.toMillis(duration));
+        ((JEWiktionaryEdition) wikt).logStats("warmed up");
+    }
+
+    /**
+     * Reads and formats the pages looked up the most in previous runs (see {@link HotTitles}) into {@link PageCache},
+     * so they're already there when they're searched for. Searches can already run while this happens.
+     */
+    private static void preloadHotPages() {
+        List<String> titles = HotTitles.get().getHottest(Constants.WARM_START_PAGES);
+        if (titles.isEmpty()) {
+            return;
+        }
+        log.i("Preloading %d pages looked up in previous runs...", titles.size());
+
+        long beforeTime = System.nanoTime();
+        int preloaded = 0;
+        try {
+            PageBatch batch = getPages(titles);
+            // coldest first, so the hottest pages are the last to be evicted
+            for (int i = titles.size() - 1; i >= 0; i--) {
+                IWiktionaryPage page = batch.get(titles.get(i)).orElse(null);
+                if (page != null && PageCache.get().preload(titles.get(i), DefinitionFormatter.formatPage(page))) {
+                    preloaded++;
+                }
+            }
+        } catch (RuntimeException e) {
+            // it's only an optimization
+            log.w("Preloading pages failed: %s", e.getMessage());
+        }
+        long duration = System.nanoTime() - beforeTime;
+
+        StartupTimer.record(StartupTimer.Phase.PAGE_PRELOAD, duration);
+        log.i("Preloaded %d pages in %dms (%s)", preloaded, TimeUnit.NANOSECONDS.toMillis(duration),
+                PageCache.get().getStats());
+    }
+
+    /**
+     * Searches started before the database is open wait on this, instead of blocking a thread.
+     * @return Future that completes with the database once it's open
+     */
+    public static CompletableFuture<DictionaryBackend> whenReady() {
+        return ready;
     }
 
     /**
      * Returns an instance of the database, loading it if it's not loaded.
+     * If it's being loaded in the background, this waits until it's done.
      * @return database instance
      */
-    public static IWiktionaryEdition get() {
+    public static DictionaryBackend get() {
         if (wikt == null) {
+            if (loading) {
+                return ready.join();
+            }
             log.w("Attempted to access database without first loading it");
             log.w("This is a bug!");
             load();
@@ -69,17 +252,108 @@ public final class WiktionaryHelper {
         return wikt;
     }
 
+    /**
+     * Looks up the pages of many words at once, like the words of a paragraph. Faster than calling
+     * {@link DictionaryBackend#getPageForWord(String)} for each word, since each word is only looked up once, the
+     * words are sorted so indexes are walked front to back, and the lookups are split over several threads. How the
+     * pages are read is up to the backend, see {@link DictionaryBackend#readPages(String[])}.
+     * Waits for the database if it's still being opened.
+     * @param words Words to look up, exactly as written; duplicates and nulls are ignored
+     * @return Page of each word, with words that have none marked as misses, and timings
+     */
+    public static PageBatch getPages(Collection<String> words) {
+        // String order is the title index's (UTF-8 bytes) order for everything outside the BMP's private use area
+        String[] titles = words.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+
+        PageBatch batch = get().readPages(titles);
+        log.d("Looked up %s", batch);
+        return batch;
+    }
+
+    /**
+     * @param count Amount of pages to look up
+     * @return Threads a lookup of that many pages is worth splitting over, the calling thread included
+     */
+    static int lookupThreads(int count) {
+        return Math.max(Math.min(LOOKUP_THREADS, (count + MIN_PAGES_PER_THREAD - 1) / MIN_PAGES_PER_THREAD), 1);
+    }
+
+    /**
+     * Runs the action for every index in [0, count), split into consecutive parts over the given amount of threads,
+     * one of them being the calling thread. Returns once all are done.
+     */
+    static void runSplit(int count, int threads, IntConsumer action) {
+        if (threads <= 1) {
+            for (int i = 0; i < count; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+
+        List<Future<?>> parts = new ArrayList<>(threads - 1);
+        for (int part = 1; part < threads; part++) {
+            int from = count * part / threads;
+            int to = count * (part + 1) / threads;
+            parts.add(LOOKUP_EXECUTOR.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+            }));
+        }
+        for (int i = 0; i < count / threads; i++) {
+            action.accept(i);
+        }
+
+        for (Future<?> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WiktionaryException("Interrupted while looking up pages");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new WiktionaryException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * @return Directory of the database that was opened, which is the Dutch index's if it's used, or null if the
+     * database isn't open yet
+     */
+    public static File getDatabasePath() {
+        return databasePath;
+    }
+
+    /**
+     * @return Whether the opened database is the Dutch index (see {@link DutchIndex}) rather than the full database
+     */
+    public static boolean isUsingDutchIndex() {
+        return databasePath != null && !databasePath.equals(new File(Constants.DATABASE_PATH));
+    }
+
     /**
      * Closes the database safely. MUST be called on shutdown!
      */
     public static void close() {
         log.i("Closing database...");
+        log.i("Page cache: %s", PageCache.get().getStats());
+        HotTitles.get().save(databasePath);
+        LookupTrace.close();
         wikt.close();
+        AudioUrlCache.close();
         log.i("Database closed");
     }
 
     /**
      * Tries to return all Dutch entries in the given page, or null if no Dutch entry was found.
+     * Pages read from the {@link DutchIndex} only have Dutch entries to begin with.
      * @param page Page to parse
      * @return Dutch entries in page
      */
@@ -104,65 +378,8 @@ public final class WiktionaryHelper {
      * @return De-formatted string
      */
     public static String removeFormatting(String s) {
-        String result = s;
-
-        // handles {{non-gloss definition}} (part of definition that shouldn't be inside parentheses)
-        // test with die
-        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler("non-gloss definition"));
-
-        // handles {{gloss}} (definition inside parentheses)
-        // test with slaan
-        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler("(", ")", 0, "gloss"));
-
-        // handles {{nl-noun form of}} (automated noun forms)
-        // test with any plural/diminutive noun
-        result = TemplateParser.parse(result, new NLNounTemplateHandler());
-
-        // handles {{nl-verb form of}} (automated verb inflections)
-        // test with any non-base verb form
-        result = TemplateParser.parse(result, new NLVerbTemplateHandler());
-
-        // handles {{nl-adj form of}} (automated adjective inflections)
-        // test with any adjective
-        result = TemplateParser.parse(result, new NLAdjTemplateHandler());
-
-        // handles {{l}} (doesn't care about language, just replaces with the text)
-        // test with motorrijwiel
-        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler(1, "link", "l"));
-
-        // handles {{ant}}
-        // test with groot
-        result = TemplateParser.parse(result, new ListBaseTemplateHandler("Antonyms: ", 1, "ant", "antonyms"));
-
-        // handles {{syn}}
-        // test with groot
-        result = TemplateParser.parse(result, new ListBaseTemplateHandler("Synonyms: ", 1, "syn", "synonyms"));
-
-        // handles {{lb}}, {{lbl}} and {{label}}
-        // test with verlopen
-        result = TemplateParser.parse(result, new ListBaseTemplateHandler("(", ")", 1, "lb", "lbl", "label"));
-
-        // handles {{mention}} and {{m}}
-        // test with noemen
-        result = TemplateParser.parse(result, new NumParamBaseTemplateHandler(1, "mention", "m"));
-
-        // handles {{ux}}, {{eg}} and {{usex}} (example)
-        // test with geloven
-        result = TemplateParser.parse(result, new ExampleTemplateHandler());
-
-        // handles {{qualifier}}, {{q}}, {{i}} and {{qual}}
-        // test with slaaf
-        result = TemplateParser.parse(result, new ListBaseTemplateHandler("(", ")", 0, "qualifier", "q", "i", "qual"));
-
-        // handles [[thing]] (wiki links, should NOT be migrated to use ITemplateHandler)
-        // test with verboden
-        result = result.replaceAll("\\[\\[((?:[^|\\]]+?\\|)*)([^|\\]]+?)]]", "$2");
-
-        // remove quotes used for bold or italics
-        // should NOT be migrated to use ITemplateHandler (it's not a template)
-        result = result.replaceAll("'''?", "");
-
-        return result;
+        // all handlers, links and quotes are done in a single scan, see WikitextFormatter
+        return WikitextFormatter.get().format(s);
     }
 
     /* old version of removeFormatting, uses regex instead of ITemplateHandler
@@ -340,14 +557,44 @@ public final class WiktionaryHelper {
 
     /**
      * Returns a URL to the actual audio file from the given filename.
-     * This isn't such a simple task, as HTML parsing is needed to get the URL from the audio file Wiki page.
+     * This isn't such a simple task, as HTML parsing is needed to get the URL from the audio file Wiki page,
+     * so results are kept in {@link AudioUrlCache} and only fetched once.
      * @param filename Which audio file to find
      * @return Direct URL to audio file of the given filename, or an empty string if couldn't find
      */
     public static String getAudioURL(String filename) throws IOException {
+        AudioUrlCache cache = AudioUrlCache.get();
+        if (cache != null) {
+            String cached = cache.getURL(filename);
+            if (cached != null) {
+                log.d("Audio URL of %s was cached", filename);
+                return cached;
+            }
+        }
+
+        String audioUrl;
+        try {
+            audioUrl = fetchAudioURL(filename);
+        } catch (HttpStatusException e) {
+            // the file page doesn't exist, which is as good as not finding the URL
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+            log.d("Audio file page of %s doesn't exist", filename);
+            audioUrl = "";
+        }
+
+        // network errors are thrown before this, so they aren't cached
+        if (cache != null) {
+            cache.putURL(filename, audioUrl);
+        }
+        return audioUrl;
+    }
+
+    private static String fetchAudioURL(String filename) throws IOException {
         long startTime = System.currentTimeMillis();
         // All page URLs consist of a constant url and the filename
-        String wikiPageUrl = "https://en.wiktionary.org/wiki/File:" + filename;
+        String wikiPageUrl = Constants.AUDIO_FILE_PAGE_URL + filename;
 
         // using jsoup, parse the link to the actual audio file from the wiki page
         Document document = Jsoup.parse(new URL(wikiPageUrl), 3000);
@@ -362,8 +609,8 @@ public final class WiktionaryHelper {
         log.d("Fetching Audio URL took %sms", endTime - startTime);
 
         // retrieve audiofile URL from player element
-        String audioUrl = elements.attr("href");
-        return audioUrl.isEmpty() ? "" : "https:" + audioUrl;
+        // the link is protocol-relative (//upload.wikimedia.org/...), so resolve it against the page's URL
+        return elements.attr("abs:href");
     }
 
 }
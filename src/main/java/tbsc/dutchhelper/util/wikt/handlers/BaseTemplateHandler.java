@@ -29,9 +29,10 @@ public abstract class BaseTemplateHandler implements TemplateParser.ITemplateHan
     protected abstract String performAction(TemplateParser.Template template);
 
     /**
-     * Used by the base class to know if it should call {@link #performAction(TemplateParser.Template)}.
+     * Used by the base class to know if it should call {@link #performAction(TemplateParser.Template)},
+     * and by {@link TemplateHandlerRegistry} to register the handler under each name.
      * @return String array containing all templates that should activate this template handler
      */
-    protected abstract String[] getTemplates();
+    public abstract String[] getTemplates();
 
 }
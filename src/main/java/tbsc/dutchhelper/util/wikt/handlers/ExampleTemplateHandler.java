@@ -14,6 +14,8 @@ import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
  */
 public class ExampleTemplateHandler extends BaseTemplateHandler {
 
+    private static final String[] TEMPLATES = { "ux", "eg", "usex" };
+
     @Override
     protected String performAction(TemplateParser.Template template) {
         String result = template.getNumberedParam(1);
@@ -36,10 +38,8 @@ public class ExampleTemplateHandler extends BaseTemplateHandler {
     }
 
     @Override
-    protected String[] getTemplates() {
-        return new String[] {
-                "ux", "eg", "usex"
-        };
+    public String[] getTemplates() {
+        return TEMPLATES;
     }
 
 }
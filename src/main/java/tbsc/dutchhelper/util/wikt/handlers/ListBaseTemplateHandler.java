@@ -65,7 +65,7 @@ public class ListBaseTemplateHandler extends BaseTemplateHandler {
     }
 
     @Override
-    protected String[] getTemplates() {
+    public String[] getTemplates() {
         return templates;
     }
 }
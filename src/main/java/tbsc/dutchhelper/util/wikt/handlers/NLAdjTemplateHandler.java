@@ -12,6 +12,8 @@ import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
  */
 public class NLAdjTemplateHandler extends BaseTemplateHandler {
 
+    private static final String[] TEMPLATES = { "nl-adj form of" };
+
     @Override
     protected String performAction(TemplateParser.Template template) {
         String word = template.getNumberedParam(1);
@@ -48,10 +50,8 @@ public class NLAdjTemplateHandler extends BaseTemplateHandler {
     }
 
     @Override
-    protected String[] getTemplates() {
-        return new String[] {
-                "nl-adj form of"
-        };
+    public String[] getTemplates() {
+        return TEMPLATES;
     }
 
 }
@@ -12,6 +12,8 @@ import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
  */
 public class NLNounTemplateHandler extends BaseTemplateHandler {
 
+    private static final String[] TEMPLATES = { "nl-noun form of" };
+
     @Override
     protected String performAction(TemplateParser.Template template) {
         String word = template.getNumberedParam(1);
@@ -32,10 +34,8 @@ public class NLNounTemplateHandler extends BaseTemplateHandler {
     }
 
     @Override
-    protected String[] getTemplates() {
-        return new String[] {
-                "nl-noun form of"
-        };
+    public String[] getTemplates() {
+        return TEMPLATES;
     }
 
 }
@@ -13,6 +13,8 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class NLVerbTemplateHandler extends BaseTemplateHandler {
 
+    private static final String[] TEMPLATES = { "nl-verb form of" };
+
     @Override
     protected String performAction(TemplateParser.Template template) {
         StringBuilder result = new StringBuilder();
@@ -89,10 +91,8 @@ public class NLVerbTemplateHandler extends BaseTemplateHandler {
     }
 
     @Override
-    protected String[] getTemplates() {
-        return new String[] {
-                "nl-verb form of"
-        };
+    public String[] getTemplates() {
+        return TEMPLATES;
     }
 
 }
@@ -54,7 +54,7 @@ public class NumParamBaseTemplateHandler extends BaseTemplateHandler {
     }
 
     @Override
-    protected String[] getTemplates() {
+    public String[] getTemplates() {
         return templates;
     }
 
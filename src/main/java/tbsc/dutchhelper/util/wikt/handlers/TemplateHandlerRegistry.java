@@ -0,0 +1,131 @@
+package tbsc.dutchhelper.util.wikt.handlers;
+
+import de.tudarmstadt.ukp.jwktl.api.util.TemplateParser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable template name to handler lookup table, built once when this class is loaded.
+ * Every name a handler returns from {@link BaseTemplateHandler#getTemplates()} is registered as an alias of the same
+ * handler instance (e.g. lb, lbl and label), so dispatching a template is a single map lookup instead of asking every
+ * handler whether it wants the template.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public final class TemplateHandlerRegistry {
+
+    private static final TemplateHandlerRegistry DEFAULT = new Builder()
+            // handles {{non-gloss definition}} (part of definition that shouldn't be inside parentheses)
+            // test with die
+            .register(new NumParamBaseTemplateHandler("non-gloss definition"))
+
+            // handles {{gloss}} (definition inside parentheses)
+            // test with slaan
+            .register(new NumParamBaseTemplateHandler("(", ")", 0, "gloss"))
+
+            // handles {{nl-noun form of}} (automated noun forms)
+            // test with any plural/diminutive noun
+            .register(new NLNounTemplateHandler())
+
+            // handles {{nl-verb form of}} (automated verb inflections)
+            // test with any non-base verb form
+            .register(new NLVerbTemplateHandler())
+
+            // handles {{nl-adj form of}} (automated adjective inflections)
+            // test with any adjective
+            .register(new NLAdjTemplateHandler())
+
+            // handles {{l}} (doesn't care about language, just replaces with the text)
+            // test with motorrijwiel
+            .register(new NumParamBaseTemplateHandler(1, "link", "l"))
+
+            // handles {{ant}}
+            // test with groot
+            .register(new ListBaseTemplateHandler("Antonyms: ", 1, "ant", "antonyms"))
+
+            // handles {{syn}}
+            // test with groot
+            .register(new ListBaseTemplateHandler("Synonyms: ", 1, "syn", "synonyms"))
+
+            // handles {{lb}}, {{lbl}} and {{label}}
+            // test with verlopen
+            .register(new ListBaseTemplateHandler("(", ")", 1, "lb", "lbl", "label"))
+
+            // handles {{mention}} and {{m}}
+            // test with noemen
+            .register(new NumParamBaseTemplateHandler(1, "mention", "m"))
+
+            // handles {{ux}}, {{eg}} and {{usex}} (example)
+            // test with geloven
+            .register(new ExampleTemplateHandler())
+
+            // handles {{qualifier}}, {{q}}, {{i}} and {{qual}}
+            // test with slaaf
+            .register(new ListBaseTemplateHandler("(", ")", 0, "qualifier", "q", "i", "qual"))
+            .build();
+
+    private final Map<String, BaseTemplateHandler> handlers;
+
+    private TemplateHandlerRegistry(Map<String, BaseTemplateHandler> handlers) {
+        this.handlers = Collections.unmodifiableMap(handlers);
+    }
+
+    /**
+     * @return Registry with every handler DutchHelper uses
+     */
+    public static TemplateHandlerRegistry get() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param name Template name, e.g. lb
+     * @return Handler registered for that name, or null if there is none
+     */
+    public BaseTemplateHandler getHandler(String name) {
+        return handlers.get(name);
+    }
+
+    /**
+     * Runs the handler of the given template name directly, skipping the name check {@link BaseTemplateHandler#handle}
+     * does, since the lookup already did it. Parameters are only parsed if the template actually has a handler.
+     * @param name Template name, the part of the template text before the first pipe
+     * @param templateText Everything between the "{{" and "}}"
+     * @return String to replace the template with, or null if it has no handler or shouldn't be replaced
+     */
+    public String handle(String name, String templateText) {
+        BaseTemplateHandler handler = handlers.get(name);
+        return handler == null ? null : handler.performAction(TemplateParser.parseTemplate(templateText));
+    }
+
+    /**
+     * Collects handlers before building an immutable registry.
+     * A name can only belong to one handler, since otherwise which one runs would depend on registration order.
+     */
+    public static final class Builder {
+
+        private final Map<String, BaseTemplateHandler> handlers = new HashMap<>();
+
+        /**
+         * Registers the handler under every name from its {@link BaseTemplateHandler#getTemplates()}.
+         */
+        public Builder register(BaseTemplateHandler handler) {
+            for (String name : handler.getTemplates()) {
+                // interned so keys share the instances of the string literals they came from
+                if (handlers.put(name.intern(), handler) != null) {
+                    throw new IllegalStateException("Template " + name + " has more than one handler");
+                }
+            }
+            return this;
+        }
+
+        public TemplateHandlerRegistry build() {
+            return new TemplateHandlerRegistry(new HashMap<>(handlers));
+        }
+
+    }
+
+}
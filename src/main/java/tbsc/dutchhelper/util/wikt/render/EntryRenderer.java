@@ -0,0 +1,21 @@
+package tbsc.dutchhelper.util.wikt.render;
+
+import tbsc.dutchhelper.util.wikt.FormattedEntry;
+
+/**
+ * Turns a {@link FormattedEntry} into something that can be shown or saved.
+ * Renderers hold no state, so one instance can be shared between threads.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public interface EntryRenderer {
+
+    /**
+     * @param entry Entry to render
+     * @return The rendered entry
+     */
+    String render(FormattedEntry entry);
+
+}
@@ -0,0 +1,137 @@
+package tbsc.dutchhelper.util.wikt.render;
+
+import de.tudarmstadt.ukp.jwktl.api.util.NLInflection;
+import tbsc.dutchhelper.util.wikt.FormattedEntry;
+import tbsc.dutchhelper.util.wikt.FormattedSense;
+
+import java.util.Map;
+
+/**
+ * Renders entries as an HTML fragment (a single div with class "entry"), meant to be styled by whatever page
+ * it's put into. All text is escaped.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class HtmlRenderer implements EntryRenderer {
+
+    @Override
+    public String render(FormattedEntry entry) {
+        StringBuilder html = new StringBuilder(512);
+        html.append("<div class=\"entry\">\n<h3>");
+        appendEscaped(html, entry.getWord());
+        html.append("</h3>\n");
+
+        if (entry.getPartOfSpeech() != null || entry.getGender() != null) {
+            html.append("<p class=\"grammar\">");
+            if (entry.getPartOfSpeech() != null) {
+                html.append("<span class=\"pos\">");
+                appendEscaped(html, entry.getPartOfSpeech().name().replace('_', ' ').toLowerCase());
+                html.append("</span>");
+            }
+            if (entry.getGender() != null) {
+                html.append(" <span class=\"article\">");
+                appendEscaped(html, entry.getArticle().getText());
+                html.append("</span> (");
+                appendEscaped(html, entry.getGender().name().toLowerCase());
+                html.append(')');
+            }
+            html.append("</p>\n");
+        }
+
+        for (FormattedEntry.Pronunciation pronunciation : entry.getPronunciations()) {
+            html.append("<p class=\"pronunciation\">");
+            appendEscaped(html, pronunciation.getType().name());
+            html.append(": ");
+            appendEscaped(html, pronunciation.getText());
+            html.append("</p>\n");
+        }
+
+        if (!entry.getSenses().isEmpty()) {
+            html.append("<ol class=\"senses\">\n");
+            for (FormattedSense sense : entry.getSenses()) {
+                html.append(sense.getIndex() == 0 ? "<li>" : "<li value=\"" + sense.getIndex() + "\">");
+                if (sense.getGloss() != null) {
+                    appendEscaped(html, sense.getGloss());
+                }
+                if (!sense.getExamples().isEmpty()) {
+                    html.append("\n<ul class=\"examples\">\n");
+                    for (String example : sense.getExamples()) {
+                        html.append("<li>");
+                        // examples have the translation on a separate line
+                        appendEscaped(html, example.trim());
+                        html.append("</li>\n");
+                    }
+                    html.append("</ul>\n");
+                }
+                html.append("</li>\n");
+            }
+            html.append("</ol>\n");
+        }
+
+        if (!entry.getInflections().isEmpty()) {
+            html.append("<table class=\"inflections\">\n");
+            for (Map.Entry<NLInflection, String> inflection : entry.getInflections().entrySet()) {
+                html.append("<tr><th>");
+                appendEscaped(html, inflection.getKey().name().replace('_', ' ').toLowerCase());
+                html.append("</th><td>");
+                appendEscaped(html, inflection.getValue());
+                html.append("</td></tr>\n");
+            }
+            html.append("</table>\n");
+        }
+
+        if (entry.getUsage() != null) {
+            html.append("<p class=\"usage\">");
+            appendEscaped(html, entry.getUsage().trim());
+            html.append("</p>\n");
+        }
+
+        for (String reference : entry.getReferences()) {
+            html.append("<p class=\"reference\">");
+            appendEscaped(html, reference);
+            html.append("</p>\n");
+        }
+
+        if (entry.getLink() != null) {
+            html.append("<p class=\"link\">");
+            appendEscaped(html, entry.getLinkType());
+            html.append(": ");
+            appendEscaped(html, entry.getLink());
+            html.append("</p>\n");
+        }
+
+        return html.append("</div>\n").toString();
+    }
+
+    private static void appendEscaped(StringBuilder html, String s) {
+        if (s == null) {
+            return;
+        }
+
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<':
+                    html.append("&lt;");
+                    break;
+                case '>':
+                    html.append("&gt;");
+                    break;
+                case '&':
+                    html.append("&amp;");
+                    break;
+                case '"':
+                    html.append("&quot;");
+                    break;
+                case '\n':
+                    html.append("<br>");
+                    break;
+                default:
+                    html.append(c);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package tbsc.dutchhelper.util.wikt.render;
+
+import de.tudarmstadt.ukp.jwktl.api.util.NLInflection;
+import tbsc.dutchhelper.util.wikt.FormattedEntry;
+import tbsc.dutchhelper.util.wikt.FormattedSense;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders entries as a single-line JSON object. Missing fields are left out, instead of being null:
+ * <pre>
+ * {"word":"huis","partOfSpeech":"noun","article":"het","gender":"neuter","pronunciations":[{"type":"IPA","text":"..."}],
+ *  "senses":[{"index":1,"gloss":"house","examples":["..."]}]}
+ * </pre>
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class JsonRenderer implements EntryRenderer {
+
+    @Override
+    public String render(FormattedEntry entry) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"word\":");
+        appendString(json, entry.getWord());
+
+        if (entry.getPartOfSpeech() != null) {
+            json.append(",\"partOfSpeech\":");
+            appendString(json, entry.getPartOfSpeech().name().replace('_', ' ').toLowerCase());
+        }
+
+        if (entry.getGender() != null) {
+            json.append(",\"article\":");
+            appendString(json, entry.getArticle().getText());
+            json.append(",\"gender\":");
+            appendString(json, entry.getGender().name().toLowerCase());
+        }
+
+        if (!entry.getPronunciations().isEmpty()) {
+            json.append(",\"pronunciations\":[");
+            for (int i = 0; i < entry.getPronunciations().size(); i++) {
+                FormattedEntry.Pronunciation pronunciation = entry.getPronunciations().get(i);
+                json.append(i > 0 ? ",{\"type\":" : "{\"type\":");
+                appendString(json, pronunciation.getType().name());
+                json.append(",\"text\":");
+                appendString(json, pronunciation.getText());
+                json.append('}');
+            }
+            json.append(']');
+        }
+
+        json.append(",\"senses\":[");
+        for (int i = 0; i < entry.getSenses().size(); i++) {
+            FormattedSense sense = entry.getSenses().get(i);
+            json.append(i > 0 ? ",{\"index\":" : "{\"index\":").append(sense.getIndex());
+            if (sense.getGloss() != null) {
+                json.append(",\"gloss\":");
+                appendString(json, sense.getGloss());
+            }
+            if (!sense.getExamples().isEmpty()) {
+                json.append(",\"examples\":");
+                appendStrings(json, sense.getExamples());
+            }
+            json.append('}');
+        }
+        json.append(']');
+
+        if (!entry.getInflections().isEmpty()) {
+            json.append(",\"inflections\":{");
+            boolean first = true;
+            for (Map.Entry<NLInflection, String> inflection : entry.getInflections().entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendString(json, inflection.getKey().name().toLowerCase());
+                json.append(':');
+                appendString(json, inflection.getValue());
+            }
+            json.append('}');
+        }
+
+        if (entry.getUsage() != null) {
+            json.append(",\"usage\":");
+            appendString(json, entry.getUsage());
+        }
+
+        if (!entry.getReferences().isEmpty()) {
+            json.append(",\"references\":");
+            appendStrings(json, entry.getReferences());
+        }
+
+        if (entry.getLink() != null) {
+            json.append(",\"linkType\":");
+            appendString(json, entry.getLinkType());
+            json.append(",\"link\":");
+            appendString(json, entry.getLink());
+        }
+
+        return json.append('}').toString();
+    }
+
+    /**
+     * Appends the strings as a JSON array.
+     */
+    public static void appendStrings(StringBuilder json, List<String> strings) {
+        json.append('[');
+        for (int i = 0; i < strings.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendString(json, strings.get(i));
+        }
+        json.append(']');
+    }
+
+    /**
+     * Appends the string as a quoted JSON string, or null if it's null.
+     */
+    public static void appendString(StringBuilder json, String s) {
+        if (s == null) {
+            json.append("null");
+            return;
+        }
+
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+}
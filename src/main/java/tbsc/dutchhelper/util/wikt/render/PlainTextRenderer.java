@@ -0,0 +1,118 @@
+package tbsc.dutchhelper.util.wikt.render;
+
+import de.tudarmstadt.ukp.jwktl.api.IPronunciation;
+import de.tudarmstadt.ukp.jwktl.api.util.NLInflection;
+import tbsc.dutchhelper.util.wikt.FormattedEntry;
+import tbsc.dutchhelper.util.wikt.FormattedSense;
+
+import java.util.Map;
+
+/**
+ * Renders entries as indented plain text, the way the definitions list shows them:
+ * <pre>
+ * huis
+ *   PoS: noun
+ *   Article: het (neuter)
+ *   Glosses:
+ *     1. house
+ * </pre>
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class PlainTextRenderer implements EntryRenderer {
+
+    @Override
+    public String render(FormattedEntry entry) {
+        StringBuilder result = new StringBuilder(256);
+
+        result.append(entry.getWord()).append("\n");
+
+        if (entry.getPartOfSpeech() != null) {
+            result.append("  PoS: ")
+                    .append(entry.getPartOfSpeech().name().replace('_', ' ').toLowerCase())
+                    .append("\n");
+        }
+
+        if (entry.getGender() != null) {
+            result.append("  Article: ").append(entry.getArticle().getText())
+                    .append(" (").append(entry.getGender().name().toLowerCase()).append(")\n");
+        }
+
+        for (FormattedEntry.Pronunciation p : entry.getPronunciations()) {
+            result.append("  ")
+                    .append(p.getType() == IPronunciation.PronunciationType.RHYME
+                            ? camelCase(p.getType().name())
+                            : p.getType().name())
+                    .append(": ").append(p.getText()).append("\n");
+        }
+
+        // glosses are always first, then examples; each section is only shown if a sense has something for it
+        boolean glosses = false;
+        for (FormattedSense sense : entry.getSenses()) {
+            if (sense.getGloss() != null) {
+                if (!glosses) {
+                    result.append("  Glosses: \n");
+                    glosses = true;
+                }
+                result.append("    ").append(sense.getIndexText()).append(". ").append(sense.getGloss()).append("\n");
+            }
+        }
+
+        boolean examples = false;
+        for (FormattedSense sense : entry.getSenses()) {
+            if (!sense.getExamples().isEmpty()) {
+                if (!examples) {
+                    result.append("  Examples: \n");
+                    examples = true;
+                }
+                result.append("    ").append(sense.getIndexText()).append(":\n");
+                for (String example : sense.getExamples()) {
+                    result.append("      ").append(example).append("\n");
+                }
+            }
+        }
+
+        if (!entry.getInflections().isEmpty()) {
+            Map<NLInflection, String> infls = entry.getInflections();
+            result.append("  Auxiliary Verb: ").append(infls.get(NLInflection.AUXILIARY_VERB)).append("\n");
+            result.append("  Inflections: \n")
+                    .append("    Present 1st-person: ").append(infls.get(NLInflection.FIRST_PERSON_SINGULAR_PRESENT)).append("\n")
+                    .append("    Present 2nd-person: ").append(infls.get(NLInflection.SECOND_PERSON_SINGULAR_PRESENT)).append("\n")
+                    .append("    Present 3rd-person: ").append(infls.get(NLInflection.THIRD_PERSON_SINGULAR_PRESENT)).append("\n")
+                    .append("    Past 1st-person: ").append(infls.get(NLInflection.FIRST_PERSON_SINGULAR_PAST)).append("\n")
+                    .append("    Past 2nd-person: ").append(infls.get(NLInflection.SECOND_PERSON_SINGULAR_PAST)).append("\n")
+                    .append("    Past 3rd-person: ").append(infls.get(NLInflection.THIRD_PERSON_SINGULAR_PAST)).append("\n")
+                    .append("    Past Plural: ").append(infls.get(NLInflection.PLURAL_PAST)).append("\n")
+                    .append("    Imperative Singular: ").append(infls.get(NLInflection.IMPERATIVE_SINGULAR)).append("\n")
+                    .append("    Present Participle: ").append(infls.get(NLInflection.PRESENT_PARTICIPLE)).append("\n")
+                    .append("    Past Participle: ").append(infls.get(NLInflection.PAST_PARTICIPLE)).append("\n");
+        }
+
+        if (entry.getUsage() != null) {
+            result.append("  Usage: ").append(entry.getUsage());
+        }
+
+        for (String reference : entry.getReferences()) {
+            result.append("  Reference: ").append(reference).append("\n");
+        }
+
+        if (entry.getLink() != null) {
+            result.append("  Link: ").append(entry.getLinkType())
+                    .append(": ").append(entry.getLink()).append("\n");
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Capitalizes first letter.
+     * @param s String to work on
+     * @return Same string with first letter capitalized
+     */
+    private static String camelCase(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1).toLowerCase();
+    }
+
+}
@@ -0,0 +1,83 @@
+package tbsc.dutchhelper.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class AsyncLogAppenderTest {
+
+    @Test
+    public void errorsAreWrittenWhenTheBufferIsFull() throws Exception {
+        CountDownLatch consoleBlocked = new CountDownLatch(1);
+        CountDownLatch releaseConsole = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        // a console that hangs on the first write, until it's released
+        OutputStream console = new OutputStream() {
+            @Override
+            public synchronized void write(int b) {
+                block();
+                written.write(b);
+            }
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                block();
+                written.write(b, off, len);
+            }
+
+            private void block() {
+                consoleBlocked.countDown();
+                try {
+                    releaseConsole.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        AsyncLogAppender appender = new AsyncLogAppender(new PrintStream(console, false, "UTF-8"));
+
+        appender.append(Log.LogLevel.INFO, null, "first");
+        assertTrue(consoleBlocked.await(5, TimeUnit.SECONDS));
+        // fills the buffer, and then some that have to be dropped
+        for (int i = 0; i < 10000; i++) {
+            appender.append(Log.LogLevel.DEBUG, null, "spam " + i);
+        }
+
+        Thread error = new Thread(() -> appender.append(Log.LogLevel.ERROR, null, "the last words"));
+        error.start();
+        error.join(200);
+        // waits for the console instead of dropping the error
+        assertTrue(error.isAlive());
+
+        releaseConsole.countDown();
+        error.join(5000);
+        assertFalse(error.isAlive());
+
+        // it's queued once there's room, and written by the writer thread after everything before it
+        String output = "";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!output.contains("the last words") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            output = new String(written.toByteArray(), StandardCharsets.UTF_8);
+        }
+        assertTrue(output.contains("[ERROR] "));
+        assertTrue(output.contains("the last words"));
+        // buffered messages are written before it
+        assertTrue(output.contains("spam 8000"));
+        assertTrue(output.indexOf("spam 8000") < output.indexOf("the last words"));
+    }
+
+}
@@ -0,0 +1,148 @@
+package tbsc.dutchhelper.util.wikt;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tbsc.dutchhelper.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs {@link WiktionaryHelper#getAudioURL(String)} against a local stub of the audio file pages, to check what
+ * {@link AudioUrlCache} keeps.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class AudioUrlCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    // files whose page fails with a server error, until this many requests for them were made
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+    private String databasePath;
+    private String pageUrl;
+    private long ttl;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/wiki/", this::handle);
+        server.start();
+
+        databasePath = Constants.DATABASE_PATH;
+        pageUrl = Constants.AUDIO_FILE_PAGE_URL;
+        ttl = Constants.AUDIO_URL_TTL;
+        Constants.DATABASE_PATH = new File(folder.getRoot(), "db").getPath();
+        Constants.AUDIO_FILE_PAGE_URL = "http://localhost:" + server.getAddress().getPort() + "/wiki/File:";
+    }
+
+    @After
+    public void tearDown() {
+        AudioUrlCache.close();
+        server.stop(0);
+        Constants.DATABASE_PATH = databasePath;
+        Constants.AUDIO_FILE_PAGE_URL = pageUrl;
+        Constants.AUDIO_URL_TTL = ttl;
+    }
+
+    @Test
+    public void cachedUrlIsntFetchedAgain() throws IOException {
+        assertEquals("http://upload.example.org/nl-huis.ogg", WiktionaryHelper.getAudioURL("nl-huis.ogg"));
+        assertEquals("http://upload.example.org/nl-huis.ogg", WiktionaryHelper.getAudioURL("nl-huis.ogg"));
+        assertEquals(1, requestCount("nl-huis.ogg"));
+    }
+
+    @Test
+    public void cachedUrlSurvivesReopening() throws IOException {
+        WiktionaryHelper.getAudioURL("nl-huis.ogg");
+        AudioUrlCache.close();
+
+        assertEquals("http://upload.example.org/nl-huis.ogg", WiktionaryHelper.getAudioURL("nl-huis.ogg"));
+        assertEquals(1, requestCount("nl-huis.ogg"));
+    }
+
+    @Test
+    public void expiredUrlIsFetchedAgain() throws Exception {
+        Constants.AUDIO_URL_TTL = 0;
+        WiktionaryHelper.getAudioURL("nl-huis.ogg");
+        Thread.sleep(10);
+
+        assertNull(AudioUrlCache.get().getURL("nl-huis.ogg"));
+        assertEquals("http://upload.example.org/nl-huis.ogg", WiktionaryHelper.getAudioURL("nl-huis.ogg"));
+        assertEquals(2, requestCount("nl-huis.ogg"));
+    }
+
+    @Test
+    public void missingPageIsCachedAsNotFound() throws IOException {
+        assertEquals("", WiktionaryHelper.getAudioURL("missing.ogg"));
+        assertEquals("", WiktionaryHelper.getAudioURL("missing.ogg"));
+        assertEquals(1, requestCount("missing.ogg"));
+    }
+
+    @Test
+    public void failedLookupIsntCached() throws IOException {
+        failures.put("nl-kat.ogg", 1);
+        try {
+            WiktionaryHelper.getAudioURL("nl-kat.ogg");
+            fail("Server error wasn't thrown");
+        } catch (IOException e) {
+            // expected, the server failed
+        }
+        assertNull(AudioUrlCache.get().getURL("nl-kat.ogg"));
+
+        assertEquals("http://upload.example.org/nl-kat.ogg", WiktionaryHelper.getAudioURL("nl-kat.ogg"));
+        assertEquals(2, requestCount("nl-kat.ogg"));
+    }
+
+    /**
+     * Serves a file page with a link to the file, except for missing.ogg, and files that should fail.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String filename = exchange.getRequestURI().getPath().substring("/wiki/File:".length());
+        int count = requests.computeIfAbsent(filename, f -> new AtomicInteger()).incrementAndGet();
+
+        int status = 200;
+        String body = "<html><body><div class=\"fullMedia\"><a class=\"internal\" href=\"//upload.example.org/"
+                + filename + "\">" + filename + "</a></div></body></html>";
+        if (filename.equals("missing.ogg")) {
+            status = 404;
+            body = "<html><body>No file by this name exists.</body></html>";
+        } else if (count <= failures.getOrDefault(filename, 0)) {
+            status = 500;
+            body = "<html><body>Internal error</body></html>";
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private int requestCount(String filename) {
+        AtomicInteger count = requests.get(filename);
+        return count == null ? 0 : count.get();
+    }
+
+}
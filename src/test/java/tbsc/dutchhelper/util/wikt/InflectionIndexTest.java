@@ -0,0 +1,63 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.parser.en.ENWiktionaryEntryParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class InflectionIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recordsDutchFormsOf() throws IOException {
+        assertEquals(Arrays.asList("huizen\thuis"), build("huizen", "# {{plural of|nl|huis}}"));
+        assertEquals(Arrays.asList("huizen\thuis"), build("huizen", "# {{plural of|huis|lang=nl}}"));
+        assertEquals(Arrays.asList("katten\tkat"), build("katten", "# {{nl-noun form of|pl|kat}}"));
+    }
+
+    @Test
+    public void skipsTemplatesWithoutLemma() throws IOException {
+        assertEquals(Arrays.asList(), build("huizen", "# {{plural of|nl}}\n# {{nl-noun form of|pl}}"));
+    }
+
+    @Test
+    public void skipsOtherLanguages() throws IOException {
+        assertEquals(Arrays.asList(), build("houses", "# {{plural of|house|lang=en}}\n# {{plural of|de|Haus}}"));
+    }
+
+    /**
+     * @return Lines of the index built out of a Dutch noun with the given senses
+     */
+    private List<String> build(String title, String senses) throws IOException {
+        WiktionaryPage page = new WiktionaryPage();
+        page.setTitle(title);
+        new ENWiktionaryEntryParser().parse(page, "==Dutch==\n\n===Noun===\n{{nl-noun}}\n\n" + senses + "\n");
+
+        InflectionIndex.Builder builder = new InflectionIndex.Builder();
+        for (IWiktionaryEntry entry : page.getEntries()) {
+            builder.add(title, entry);
+        }
+        File file = folder.newFile();
+        builder.write(file);
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+}
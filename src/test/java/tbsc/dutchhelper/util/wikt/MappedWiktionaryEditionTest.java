@@ -0,0 +1,109 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryEntry;
+import de.tudarmstadt.ukp.jwktl.api.IWiktionarySense;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.util.IWiktionaryIterator;
+import de.tudarmstadt.ukp.jwktl.parser.en.ENWiktionaryEntryParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class MappedWiktionaryEditionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedWiktionaryEdition edition;
+
+    @Before
+    public void setUp() throws IOException {
+        File file = new File(folder.getRoot(), DutchIndex.MAPPED_FILE_NAME);
+        try (MappedWiktionaryEdition.Writer writer =
+                     new MappedWiktionaryEdition.Writer(folder.getRoot(), WiktionaryHelper.getNLD())) {
+            writer.add(page("kat", "===Noun===\n{{nl-noun}}\n\n# cat\n"));
+            writer.add(page("huis", "===Noun===\n{{nl-noun}}\n\n# house\n# home\n\n"
+                    + "===Verb===\n{{nl-verb}}\n\n# to house\n"));
+            writer.write(file);
+        }
+        edition = new MappedWiktionaryEdition(file);
+    }
+
+    @After
+    public void tearDown() {
+        edition.close();
+    }
+
+    @Test
+    public void iteratesEntriesInTitleOrder() {
+        List<String> entries = new ArrayList<>();
+        for (IWiktionaryEntry entry : toList(edition.getAllEntries())) {
+            entries.add(entry.getPage().getTitle() + " " + entry.getPartOfSpeech());
+        }
+        assertEquals("[huis NOUN, huis VERB, kat NOUN]", entries.toString());
+    }
+
+    @Test
+    public void iteratesSenses() {
+        List<String> glosses = new ArrayList<>();
+        for (IWiktionarySense sense : toList(edition.getAllSenses())) {
+            glosses.add(sense.getGloss().getText().trim());
+        }
+        assertEquals("[house, home, to house, cat]", glosses.toString());
+    }
+
+    @Test
+    public void findsEntriesById() {
+        for (IWiktionaryEntry entry : toList(edition.getAllEntries())) {
+            IWiktionaryEntry found = edition.getEntryForId(entry.getId());
+            assertNotNull(found);
+            assertEquals(entry.getKey(), found.getKey());
+            assertEquals(entry.getPartOfSpeech(), found.getPartOfSpeech());
+        }
+        assertNull(edition.getEntryForId(5));
+        assertNull(edition.getEntryForId(100L << 16));
+    }
+
+    @Test
+    public void findsSensesByKey() {
+        for (IWiktionarySense sense : toList(edition.getAllSenses())) {
+            IWiktionarySense found = edition.getSenseForKey(sense.getKey());
+            assertNotNull(sense.getKey(), found);
+            assertEquals(sense.getGloss().getText(), found.getGloss().getText());
+        }
+        assertNull(edition.getSenseForKey("0:0:9"));
+        assertNull(edition.getSenseForKey("0:x:1"));
+        assertNull(edition.getSenseForKey("huis"));
+    }
+
+    private static WiktionaryPage page(String title, String dutch) {
+        WiktionaryPage page = new WiktionaryPage();
+        page.setTitle(title);
+        new ENWiktionaryEntryParser().parse(page, "==Dutch==\n\n" + dutch);
+        return page;
+    }
+
+    private static <T> List<T> toList(IWiktionaryIterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        for (T item : iterator) {
+            list.add(item);
+        }
+        iterator.close();
+        return list;
+    }
+
+}
@@ -0,0 +1,72 @@
+package tbsc.dutchhelper.util.wikt;
+
+import de.tudarmstadt.ukp.jwktl.api.IWiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.api.entry.WiktionaryPage;
+import de.tudarmstadt.ukp.jwktl.parser.en.ENWiktionaryEntryParser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Looks up and formats pages kept by a {@link MemoryBackend}, like a search or a batch lookup does.
+ *
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class MemoryBackendTest {
+
+    private final MemoryBackend backend = new MemoryBackend(Arrays.asList(
+            page("kat", "==Dutch==\n\n===Noun===\n{{nl-noun}}\n\n# cat\n"),
+            page("huis", "==English==\n\n===Noun===\n{{en-noun}}\n\n# a made-up English sense\n\n"
+                    + "==Dutch==\n\n===Noun===\n{{nl-noun}}\n\n# house\n# home\n"),
+            page("cat", "==English==\n\n===Noun===\n{{en-noun}}\n\n# a pet\n")));
+
+    @Test
+    public void keepsOnlyDutchPages() {
+        assertEquals(2, backend.size());
+        assertNull(backend.getPageForWord("cat"));
+        assertNull(backend.getPageForWord(null));
+
+        List<String> titles = new ArrayList<>();
+        backend.forEachTitle(titles::add);
+        assertEquals("[huis, kat]", titles.toString());
+    }
+
+    @Test
+    public void formatsFoundPage() {
+        IWiktionaryPage page = backend.getPageForWord("huis");
+        assertNotNull(page);
+
+        FormattedPage formatted = DefinitionFormatter.formatPage(page);
+        assertEquals("huis", formatted.getTitle());
+        assertTrue(formatted.isDutch());
+        String definitions = String.join("\n", formatted.getDefinitions());
+        assertTrue(definitions, definitions.contains("house"));
+        assertTrue(definitions, definitions.contains("home"));
+        assertFalse(definitions, definitions.contains("made-up"));
+    }
+
+    @Test
+    public void readsBatchWithMisses() {
+        PageBatch batch = backend.readPages(new String[]{"cat", "huis", "kat"});
+        assertEquals(3, batch.size());
+        assertEquals(2, batch.getFoundCount());
+        assertEquals(Arrays.asList("cat"), batch.getMisses());
+        assertEquals("kat", batch.get("kat").map(IWiktionaryPage::getTitle).orElse(null));
+        assertEquals(DefinitionFormatter.formatPage(batch.get("kat").get(), false).getDefinitions(),
+                DefinitionFormatter.formatPage(backend.getPageForWord("kat"), true).getDefinitions());
+    }
+
+    private static WiktionaryPage page(String title, String text) {
+        WiktionaryPage page = new WiktionaryPage();
+        page.setTitle(title);
+        new ENWiktionaryEntryParser().parse(page, text);
+        return page;
+    }
+
+}
@@ -0,0 +1,144 @@
+package tbsc.dutchhelper.util.wikt;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tbsc.dutchhelper.Constants;
+
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created on 18/10/2026
+ * @author tbsc
+ * @since 2.0.1
+ */
+public class PageCacheTest {
+
+    private final PageCache cache = PageCache.get();
+
+    private int maxEntries;
+    private long maxBytes;
+    private boolean warmStart;
+    private long rejections;
+    private long evictions;
+
+    @Before
+    public void setUp() {
+        maxEntries = Constants.PAGE_CACHE_MAX_ENTRIES;
+        maxBytes = Constants.PAGE_CACHE_MAX_BYTES;
+        warmStart = Constants.WARM_START;
+        Constants.WARM_START = false;
+        Constants.PAGE_CACHE_MAX_ENTRIES = 100;
+        cache.clear();
+        rejections = cache.getRejections();
+        evictions = cache.getEvictions();
+    }
+
+    @After
+    public void tearDown() {
+        Constants.PAGE_CACHE_MAX_ENTRIES = maxEntries;
+        Constants.PAGE_CACHE_MAX_BYTES = maxBytes;
+        Constants.WARM_START = warmStart;
+        cache.clear();
+    }
+
+    @Test
+    public void rejectedCandidateEvictsNothing() {
+        FormattedPage small = page(100);
+        FormattedPage big = page(2 * 100);
+        // room for the two small pages, and for the big one only if both are pushed out
+        Constants.PAGE_CACHE_MAX_BYTES = 2 * small.getWeight() + small.getWeight() / 2;
+        lookUp("a", 1);
+        lookUp("b", 10);
+        lookUp("c", 5);
+
+        cache.put("a", small);
+        cache.put("b", small);
+        cache.put("c", big);
+
+        assertEquals(1, cache.getRejections() - rejections);
+        assertEquals(0, cache.getEvictions() - evictions);
+        assertEquals(2, cache.size());
+        assertSame(small, cache.getIfPresent("a"));
+        assertSame(small, cache.getIfPresent("b"));
+        assertNull(cache.getIfPresent("c"));
+    }
+
+    @Test
+    public void candidateMoreFrequentThanAllVictimsIsKept() {
+        FormattedPage small = page(100);
+        FormattedPage big = page(2 * 100);
+        Constants.PAGE_CACHE_MAX_BYTES = 2 * small.getWeight() + small.getWeight() / 2;
+        lookUp("a", 1);
+        lookUp("b", 2);
+        lookUp("c", 5);
+
+        cache.put("a", small);
+        cache.put("b", small);
+        cache.put("c", big);
+
+        assertEquals(0, cache.getRejections() - rejections);
+        assertEquals(2, cache.getEvictions() - evictions);
+        assertEquals(1, cache.size());
+        assertSame(big, cache.getIfPresent("c"));
+    }
+
+    @Test
+    public void oneOffLookupsDontPushOutFrequentPages() {
+        Constants.PAGE_CACHE_MAX_BYTES = Long.MAX_VALUE / 2;
+        Constants.PAGE_CACHE_MAX_ENTRIES = 20;
+        FormattedPage page = page(10);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 15; i++) {
+                if (cache.getIfPresent("vaak" + i) == null) {
+                    cache.put("vaak" + i, page);
+                }
+            }
+        }
+
+        // like a pasted text full of words that are looked up only this once
+        for (int i = 0; i < 100; i++) {
+            assertNull(cache.getIfPresent("zelden" + i));
+            cache.put("zelden" + i, page);
+        }
+
+        assertTrue(cache.size() <= Constants.PAGE_CACHE_MAX_ENTRIES);
+        for (int i = 0; i < 15; i++) {
+            assertNotNull("vaak" + i, cache.getIfPresent("vaak" + i));
+        }
+    }
+
+    @Test
+    public void staysWithinBounds() {
+        Constants.PAGE_CACHE_MAX_ENTRIES = 30;
+        Constants.PAGE_CACHE_MAX_BYTES = 20 * page(100).getWeight();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            String title = "w" + (random.nextInt(4) == 0 ? random.nextInt(1000) : random.nextInt(40));
+            FormattedPage cached = cache.getIfPresent(title);
+            if (cached == null || random.nextInt(10) == 0) {
+                cache.put(title, page(random.nextInt(300)));
+            }
+            assertTrue(cache.size() <= Constants.PAGE_CACHE_MAX_ENTRIES);
+            assertTrue(cache.getWeight() <= Constants.PAGE_CACHE_MAX_BYTES);
+        }
+    }
+
+    private void lookUp(String title, int times) {
+        for (int i = 0; i < times; i++) {
+            cache.getIfPresent(title);
+        }
+    }
+
+    /**
+     * @return A page without entries, which weighs more the longer its audio file name is
+     */
+    private static FormattedPage page(int audioFileLength) {
+        return new FormattedPage("x", Collections.emptyList(), String.join("", Collections.nCopies(audioFileLength,
+                "a")), false);
+    }
+
+}